@@ -5,6 +5,7 @@ import java.util.Locale
 
 plugins {
     alias(libs.plugins.android.application)
+    alias(libs.plugins.androidx.baselineprofile)
     alias(libs.plugins.sentry.android.gradle)
 }
 
@@ -65,6 +66,17 @@ val envSplashBackgroundColor: String
 val envSentryDsn: String
     get() = getEnvOrDefault("TB_SENTRY_DSN", "")
 
+val envBundledPortal: Boolean
+    get() = getEnvOrDefault("TB_ANDROID_BUNDLED_PORTAL", "false").toBoolean()
+
+val envPortalVersion: String
+    get() = getEnvOrDefault("TB_VERSION_SEMVER", envVersionName)
+
+val bundlePortal by tasks.registering(Sync::class) {
+    from("../../portal")
+    into(layout.buildDirectory.dir("generated/portal/assets/portal"))
+}
+
 android {
     namespace = "com.sample"
     compileSdk = 35
@@ -82,6 +94,8 @@ android {
         minSdk = 23
         versionCode = envVersionCode
         versionName = envVersionName
+        buildConfigField("boolean", "BUNDLED_PORTAL", envBundledPortal.toString())
+        buildConfigField("String", "PORTAL_VERSION", "\"$envPortalVersion\"")
     }
 
     buildFeatures {
@@ -166,14 +180,39 @@ android {
         java.setSrcDirs(listOfNotNull("src/main/java", "src/standalone/java", "src/installer/java"))
         res.setSrcDirs(listOf("src/main/res"))
     }
+
+    if (envBundledPortal) {
+        sourceSets.getByName("main") {
+            assets.srcDir(layout.buildDirectory.dir("generated/portal/assets"))
+        }
+    }
+}
+
+if (envBundledPortal) {
+    tasks.named("preBuild") {
+        dependsOn(bundlePortal)
+    }
+}
+
+baselineProfile {
+    automaticGenerationDuringBuild = false
+    saveInSrc = true
+    dexLayoutOptimization = true
 }
 
 dependencies {
     "launcherImplementation"(libs.ackpine.core)
     "standaloneImplementation"(libs.ackpine.core)
 
+    "launcherBaselineProfile"(project(":benchmark"))
+    "standaloneBaselineProfile"(project(":benchmark"))
+
     implementation(libs.androidx.core.splashscreen)
+    implementation(libs.androidx.profileinstaller)
     implementation(libs.androidx.webkit)
     implementation(libs.okhttp)
     implementation(libs.simple.android.bridge)
+
+    testImplementation(libs.junit)
+    "testLauncherImplementation"(libs.mockwebserver)
 }
\ No newline at end of file
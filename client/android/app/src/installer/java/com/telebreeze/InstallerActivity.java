@@ -20,6 +20,6 @@ public class InstallerActivity extends MainActivity {
     @Override
     protected void onDestroy() {
         super.onDestroy();
-        packageController.dispose();
+        packageController.release();
     }
 }
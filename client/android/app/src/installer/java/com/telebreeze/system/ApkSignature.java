@@ -0,0 +1,37 @@
+package com.sample.system;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.util.Arrays;
+
+final class ApkSignature {
+    private ApkSignature() {}
+
+    /**
+     * Collecting signatures of an archive makes the platform verify the APK signing block (or every JAR entry
+     * for v1-only packages), so a corrupted or mis-stitched file is rejected here.
+     */
+    @SuppressWarnings("deprecation")
+    public static boolean matchesInstalled(@NonNull Context context, @NonNull File apk) {
+        final PackageManager packageManager = context.getPackageManager();
+
+        try {
+            PackageInfo archive = packageManager.getPackageArchiveInfo(apk.getPath(), PackageManager.GET_SIGNATURES);
+            PackageInfo installed = packageManager.getPackageInfo(context.getPackageName(), PackageManager.GET_SIGNATURES);
+
+            return null != archive
+                && null != archive.signatures
+                && 0 < archive.signatures.length
+                && Arrays.equals(archive.signatures, installed.signatures);
+        } catch (PackageManager.NameNotFoundException | RuntimeException e) {
+            Log.w("Package signature", "Cannot verify " + apk + ": " + e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.sample.system;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okio.BufferedSink;
+import okio.BufferedSource;
+
+final class ChunkedCopy {
+    private ChunkedCopy() {}
+
+    public static long copy(@NonNull BufferedSource source, @NonNull BufferedSink sink, long chunkSize) throws IOException {
+        long written = 0;
+        long bytesRead;
+
+        while (-1 != (bytesRead = source.read(sink.getBuffer(), chunkSize))) {
+            sink.emitCompleteSegments();
+            written += bytesRead;
+        }
+
+        return written;
+    }
+}
@@ -0,0 +1,110 @@
+package com.sample.system;
+
+import androidx.annotation.NonNull;
+
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okio.BufferedSource;
+
+/**
+ * Copy/insert patch rebuilding a new APK from the installed one:
+ * <pre>
+ * "SPATCH01" | int64 target length | operation* | 0x00
+ * 0x01 | int64 source offset | int32 length   copy a range of the installed APK
+ * 0x02 | int32 length | bytes                 insert literal bytes
+ * </pre>
+ * Integers are big-endian. The patch is applied while it is being downloaded.
+ */
+final class DeltaPatch {
+    public interface ProgressListener {
+        void onProgress(long written, long length);
+    }
+
+    private static final String MAGIC = "SPATCH01";
+    private static final byte OP_END = 0x00;
+    private static final byte OP_COPY = 0x01;
+    private static final byte OP_INSERT = 0x02;
+
+    private DeltaPatch() {}
+
+    public static void apply(@NonNull BufferedSource patch, @NonNull File base, @NonNull File target, @NonNull String sha256, int chunkSize, @NonNull ProgressListener listener) throws IOException {
+        if (!MAGIC.equals(patch.readUtf8(MAGIC.length()))) {
+            throw new IOException("Unknown patch format");
+        }
+
+        final long length = patch.readLong();
+        final MessageDigest digest = createDigest();
+        final ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+        long written = 0;
+
+        try (FileInputStream inputStream = new FileInputStream(base); FileOutputStream outputStream = new FileOutputStream(target)) {
+            final FileChannel source = inputStream.getChannel();
+            final FileChannel output = outputStream.getChannel();
+            byte operation;
+
+            while (OP_END != (operation = patch.readByte())) {
+                long offset = OP_COPY == operation ? patch.readLong() : -1;
+                int count = patch.readInt();
+
+                if (OP_COPY != operation && OP_INSERT != operation || count < 0) {
+                    throw new IOException("Malformed patch operation " + operation + " at " + written);
+                }
+
+                if (OP_COPY == operation && (offset < 0 || offset > source.size() - count)) {
+                    throw new IOException("Patch copies " + count + " bytes at " + offset + " outside of " + source.size() + " at " + written);
+                }
+
+                while (count > 0) {
+                    buffer.clear();
+                    buffer.limit(Math.min(chunkSize, count));
+
+                    int bytesRead = OP_COPY == operation ? source.read(buffer, offset) : patch.read(buffer);
+
+                    if (bytesRead <= 0) {
+                        throw new IOException("Unexpected end of " + (OP_COPY == operation ? base : "patch") + " at " + written);
+                    }
+
+                    buffer.flip();
+                    digest.update(buffer.array(), 0, bytesRead);
+
+                    while (buffer.hasRemaining()) {
+                        output.write(buffer);
+                    }
+
+                    offset += bytesRead;
+                    count -= bytesRead;
+                    written += bytesRead;
+                }
+
+                listener.onProgress(written, length);
+            }
+        }
+
+        if (written != length) {
+            throw new IOException("Unexpected patched package size: " + written + " of " + length);
+        }
+
+        String hash = Utils.toHex(digest.digest());
+
+        if (!hash.equalsIgnoreCase(sha256)) {
+            throw new IOException("Patched package hash mismatch: " + hash);
+        }
+    }
+
+    private static MessageDigest createDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IOException(exception);
+        }
+    }
+}
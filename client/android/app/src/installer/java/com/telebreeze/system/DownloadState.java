@@ -0,0 +1,146 @@
+package com.sample.system;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Properties;
+
+final class DownloadState {
+    private static final String KEY_URL = "url";
+    private static final String KEY_VERSION = "version";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_LENGTH = "length";
+    private static final String KEY_WRITTEN = "written";
+    private static final String KEY_SEGMENTS = "segments";
+
+    private final File file;
+
+    public String url;
+    public String version;
+    @Nullable
+    public String etag;
+    @Nullable
+    public String lastModified;
+    public long length = -1;
+    public long written = 0;
+    @Nullable
+    public long[] segments;
+
+    private DownloadState(@NonNull File file) {
+        this.file = file;
+    }
+
+    public static DownloadState load(@NonNull File file) {
+        DownloadState state = new DownloadState(file);
+
+        if (file.exists()) {
+            Properties properties = new Properties();
+
+            try (InputStream inputStream = new FileInputStream(file)) {
+                properties.load(inputStream);
+
+                state.url = properties.getProperty(KEY_URL);
+                state.version = properties.getProperty(KEY_VERSION);
+                state.etag = properties.getProperty(KEY_ETAG);
+                state.lastModified = properties.getProperty(KEY_LAST_MODIFIED);
+                state.length = Long.parseLong(properties.getProperty(KEY_LENGTH, "-1"));
+                state.written = Long.parseLong(properties.getProperty(KEY_WRITTEN, "0"));
+                state.segments = parseSegments(properties.getProperty(KEY_SEGMENTS));
+            } catch (IOException | NumberFormatException exception) {
+                Log.w("Download state", "Cannot read " + file + ": " + exception);
+                state.reset(null, null);
+            }
+        }
+
+        return state;
+    }
+
+    public boolean isFor(@NonNull String url, @NonNull String version) {
+        return url.equals(this.url) && version.equals(this.version);
+    }
+
+    @Nullable
+    public String getValidator() {
+        return null != etag ? etag : lastModified;
+    }
+
+    public boolean isCompleted() {
+        return length > 0 && written == length;
+    }
+
+    public void reset(@Nullable String url, @Nullable String version) {
+        this.url = url;
+        this.version = version;
+        etag = null;
+        lastModified = null;
+        length = -1;
+        written = 0;
+        segments = null;
+    }
+
+    public synchronized void save() {
+        Properties properties = new Properties();
+
+        put(properties, KEY_URL, url);
+        put(properties, KEY_VERSION, version);
+        put(properties, KEY_ETAG, etag);
+        put(properties, KEY_LAST_MODIFIED, lastModified);
+        properties.setProperty(KEY_LENGTH, String.valueOf(length));
+        properties.setProperty(KEY_WRITTEN, String.valueOf(written));
+
+        if (null != segments) {
+            StringBuilder builder = new StringBuilder();
+
+            for (long segment : segments) {
+                builder.append(0 == builder.length() ? "" : ",").append(segment);
+            }
+
+            properties.setProperty(KEY_SEGMENTS, builder.toString());
+        }
+
+        try (OutputStream outputStream = new FileOutputStream(file)) {
+            properties.store(outputStream, null);
+        } catch (IOException exception) {
+            Log.w("Download state", "Cannot write " + file + ": " + exception);
+        }
+    }
+
+    public void delete() {
+        reset(null, null);
+
+        if (file.exists()) {
+            file.delete();
+        }
+    }
+
+    @Nullable
+    private static long[] parseSegments(@Nullable String value) {
+        if (null == value || value.isEmpty()) {
+            return null;
+        }
+
+        String[] items = value.split(",");
+        long[] segments = new long[items.length];
+
+        for (int i = 0; i < items.length; i++) {
+            segments[i] = Long.parseLong(items[i].trim());
+        }
+
+        return segments;
+    }
+
+    private static void put(Properties properties, String key, @Nullable String value) {
+        if (null != value) {
+            properties.setProperty(key, value);
+        }
+    }
+}
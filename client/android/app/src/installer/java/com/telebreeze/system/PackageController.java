@@ -1,9 +1,10 @@
 package com.sample.system;
 
 import android.app.Activity;
-import android.content.pm.PackageInfo;
-import android.content.res.Resources;
 import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.util.Log;
 import android.widget.Toast;
 
@@ -16,17 +17,21 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.sample.R;
+import com.sample.helpers.HttpClient;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.net.HttpURLConnection;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 
 import de.andycandy.android.bridge.CallType;
 import de.andycandy.android.bridge.DefaultJSInterface;
 import de.andycandy.android.bridge.JSFunctionWithArg;
 import de.andycandy.android.bridge.NativeCall;
+import de.andycandy.android.bridge.Promise;
 
 import okhttp3.Call;
 import okhttp3.Callback;
@@ -37,6 +42,7 @@ import okhttp3.Request;
 import okhttp3.Response;
 import okhttp3.ResponseBody;
 import okio.Buffer;
+import okio.BufferedSink;
 import okio.BufferedSource;
 import okio.ForwardingSource;
 import okio.Okio;
@@ -51,10 +57,23 @@ import ru.solrudev.ackpine.session.Session;
 import ru.solrudev.ackpine.session.parameters.Confirmation;
 
 public class PackageController extends DefaultJSInterface {
+    private static final long DOWNLOAD_CHUNK_SIZE = 64 * 1024;
+    private static final long DOWNLOAD_TIMEOUT = 60;
+    private static final int DOWNLOAD_MAX_ATTEMPTS = 8;
+    private static final long DOWNLOAD_RETRY_DELAY = 1000;
+    private static final long DOWNLOAD_RETRY_MAX_DELAY = 60000;
+    private static final int DOWNLOAD_MAX_SEGMENTS = 8;
+    private static final long DOWNLOAD_PROGRESS_INTERVAL = 250;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
     private final Activity activity;
     private JSFunctionWithArg<Integer> onDownloadChange;
+    private JSFunctionWithArg<Long> onDownloadBytesChange;
     private JSFunctionWithArg<Integer> onProgressChange;
     private PackageManager packageManager;
+    private int downloadSegments = 1;
+    private long progressInterval = DOWNLOAD_PROGRESS_INTERVAL;
 
     public PackageController(Activity activity) {
         super("package");
@@ -62,6 +81,10 @@ public class PackageController extends DefaultJSInterface {
         this.activity = activity;
     }
 
+    private static boolean isRetriable(int code) {
+        return code >= 500 || HttpURLConnection.HTTP_CLIENT_TIMEOUT == code || HTTP_TOO_MANY_REQUESTS == code;
+    }
+
     public String getInstallerSessionId() {
         return null != packageManager ? packageManager.getSessionId() : null;
     }
@@ -79,21 +102,76 @@ public class PackageController extends DefaultJSInterface {
         }
     }
 
+    public void release() {
+        if (null != packageManager) {
+            packageManager.release();
+            packageManager = null;
+        }
+    }
+
+    private final class DownloadProgress {
+        private int lastPercent = -1;
+        private long lastReportTime = 0;
+
+        public synchronized void update(long written, long length) {
+            final long now = SystemClock.elapsedRealtime();
+
+            if (now - lastReportTime < progressInterval) {
+                return;
+            }
+
+            if (length > 0) {
+                int percent = (int) (written * 100 / length);
+
+                if (percent != lastPercent && null != onDownloadChange) {
+                    lastPercent = percent;
+                    lastReportTime = now;
+                    onDownloadChange.call(percent);
+                }
+            } else if (null != onDownloadBytesChange) {
+                lastReportTime = now;
+                onDownloadBytesChange.call(written);
+            }
+        }
+    }
+
     private final class PackageManager {
         private final PackageInstaller packageInstaller = PackageInstaller.getInstance(activity);
         private final File apkFile = new File(getPackageFilePath());
+        private final File partFile = new File(getPackageFilePath() + ".part");
+        private final DownloadState state = DownloadState.load(new File(getPackageFilePath() + ".meta"));
+        private final Handler retryHandler = new Handler(Looper.getMainLooper());
+        private final Runnable retryRunnable = this::retry;
+        private final DownloadProgress progress = new DownloadProgress();
         private final String url;
         private final String version;
+        private final String patchUrl;
+        private final String sha256;
 
         private Call downloadCall;
+        private SegmentedDownload segmentedDownload;
+        private ExecutorService segmentedExecutor;
+        private int attempts = 0;
+        private boolean patchFailed = false;
+        private volatile boolean released = false;
         private DisposableSubscriptionContainer subscriptions;
         private ProgressSession<InstallFailure> session;
 
         public PackageManager(String url, String version) {
+            this(url, version, null, null);
+        }
+
+        public PackageManager(String url, String version, @Nullable String patchUrl, @Nullable String sha256) {
             this.url = url;
             this.version = version;
+            this.patchUrl = patchUrl;
+            this.sha256 = sha256;
 
-            removePackageFile();
+            if (!state.isFor(url, version)) {
+                removePackageFile();
+                state.reset(url, version);
+                state.save();
+            }
         }
 
         private void showToast(@StringRes int resId) {
@@ -112,12 +190,33 @@ public class PackageController extends DefaultJSInterface {
             if (apkFile.exists()) {
                 apkFile.delete();
             }
+
+            if (partFile.exists()) {
+                partFile.delete();
+            }
+
+            state.delete();
         }
 
         private void cancelDownload() {
+            released = true;
+            retryHandler.removeCallbacks(retryRunnable);
+
             if (null != downloadCall && downloadCall.isExecuted()) {
                 downloadCall.cancel();
             }
+
+            if (null != segmentedDownload) {
+                segmentedDownload.cancel();
+                segmentedDownload = null;
+            }
+
+            synchronized (this) {
+                if (null != segmentedExecutor) {
+                    segmentedExecutor.shutdown();
+                    segmentedExecutor = null;
+                }
+            }
         }
 
         public String getSessionId() {
@@ -129,7 +228,19 @@ public class PackageController extends DefaultJSInterface {
         }
 
         public void update() {
-            download(this::install);
+            if (state.isCompleted() && apkFile.length() == state.length) {
+                install();
+            } else if (null != patchUrl && null != sha256 && !patchFailed && 0 == getWrittenBytes()) {
+                downloadPatch(this::install);
+            } else {
+                download(this::install);
+            }
+        }
+
+        private void retry() {
+            if (!released) {
+                update();
+            }
         }
 
         public void clear() {
@@ -138,6 +249,11 @@ public class PackageController extends DefaultJSInterface {
             removePackageFile();
         }
 
+        public void release() {
+            cancelDownload();
+            removeInstaller();
+        }
+
         public void restoreSession(@NonNull String id) {
             Futures.addCallback(packageInstaller.getSessionAsync(UUID.fromString(id)), new FutureCallback<ProgressSession<InstallFailure>>() {
                 @Override
@@ -238,10 +354,12 @@ public class PackageController extends DefaultJSInterface {
 
         private final class ProgressResponseBody extends ResponseBody {
             private final ResponseBody responseBody;
+            private final long offset;
             private BufferedSource bufferedSource;
 
-            public ProgressResponseBody(ResponseBody responseBody) {
+            public ProgressResponseBody(ResponseBody responseBody, long offset) {
                 this.responseBody = responseBody;
+                this.offset = offset;
             }
 
             @Override
@@ -266,16 +384,14 @@ public class PackageController extends DefaultJSInterface {
 
             private Source source(Source source) {
                 return new ForwardingSource(source) {
-                    long totalBytesRead = 0L;
+                    long totalBytesRead = offset;
 
                     @Override
                     public long read(@NonNull Buffer sink, long byteCount) throws IOException {
                         long bytesRead = super.read(sink, byteCount);
                         totalBytesRead += bytesRead != -1 ? bytesRead : 0;
 
-                        if (null != onDownloadChange) {
-                            onDownloadChange.call((int) (totalBytesRead * 100 / contentLength()));
-                        }
+                        progress.update(totalBytesRead, contentLength() < 0 ? -1 : offset + contentLength());
 
                         return bytesRead;
                     }
@@ -283,37 +399,243 @@ public class PackageController extends DefaultJSInterface {
             }
         }
 
+        private long getWrittenBytes() {
+            if (null != state.segments) {
+                long written = 0;
+
+                for (long segment : state.segments) {
+                    written += segment;
+                }
+
+                return written;
+            }
+
+            return partFile.exists() ? partFile.length() : 0;
+        }
+
         private void download(Runnable runnable) {
-            OkHttpClient client = new OkHttpClient.Builder()
-                .connectTimeout(60, TimeUnit.SECONDS)
-                .readTimeout(60, TimeUnit.SECONDS)
+            if (downloadSegments > 1) {
+                downloadSegmented(runnable);
+            } else {
+                downloadSingle(runnable);
+            }
+        }
+
+        private void downloadSegmented(Runnable runnable) {
+            final long offset = getWrittenBytes();
+
+            OkHttpClient client = HttpClient.withTimeout(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
+
+            downloadCall = client.newCall(new Request.Builder().url(this.url).head().build());
+            downloadCall.enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException exception) {
+                    if (!call.isCanceled()) {
+                        onDownloadFailed(exception, offset);
+                    }
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    response.close();
+
+                    if (released || call.isCanceled()) {
+                        return;
+                    }
+
+                    if (!SegmentedDownload.isSupported(response)) {
+                        Log.i("Segmented download", "Ranges are not supported by " + url + ", falling back to single stream");
+                        downloadSingle(runnable);
+                        return;
+                    }
+
+                    SegmentedDownload download = new SegmentedDownload(client, url, partFile, state, (int) DOWNLOAD_CHUNK_SIZE, progress::update);
+
+                    segmentedDownload = download;
+                    getSegmentedExecutor().execute(() -> runSegmented(download, response, runnable, offset));
+                }
+            });
+        }
+
+        private synchronized ExecutorService getSegmentedExecutor() {
+            if (null == segmentedExecutor) {
+                segmentedExecutor = Executors.newSingleThreadExecutor();
+            }
+
+            return segmentedExecutor;
+        }
+
+        private void runSegmented(@NonNull SegmentedDownload download, @NonNull Response head, @NonNull Runnable runnable, long offset) {
+            try {
+                download.run(head, downloadSegments);
+                segmentedDownload = null;
+
+                if (!download.hasDigest() && !ApkSignature.matchesInstalled(activity, partFile)) {
+                    throw new PackageVerificationException("Package signature does not match the installed application");
+                }
+
+                onDownloadCompleted(runnable);
+            } catch (PackageVerificationException exception) {
+                segmentedDownload = null;
+                partFile.delete();
+
+                synchronized (state) {
+                    state.reset(url, version);
+                    state.save();
+                }
+
+                onDownloadFailed(exception, offset, false);
+            } catch (IOException exception) {
+                segmentedDownload = null;
+
+                if (!download.isCanceled()) {
+                    onDownloadFailed(exception, offset);
+                }
+            }
+        }
+
+        private void downloadPatch(Runnable runnable) {
+            final ApplicationInfo info = getInfo();
+
+            if (null == info || null == info.apkDir || !new File(info.apkDir).canRead()) {
+                onPatchFailed(new IOException("Installed package is not readable"), runnable);
+                return;
+            }
+
+            OkHttpClient client = HttpClient.withTimeout(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS);
+
+            downloadCall = client.newCall(new Request.Builder().url(patchUrl).build());
+            downloadCall.enqueue(new Callback() {
+                @Override
+                public void onFailure(@NonNull Call call, @NonNull IOException exception) {
+                    if (!call.isCanceled()) {
+                        onPatchFailed(exception, runnable);
+                    }
+                }
+
+                @Override
+                public void onResponse(@NonNull Call call, @NonNull Response response) {
+                    try (Response patchResponse = response) {
+                        if (!patchResponse.isSuccessful()) {
+                            throw new IOException("Failed to download patch: " + patchResponse);
+                        }
+
+                        DeltaPatch.apply(patchResponse.body().source(), new File(info.apkDir), partFile, sha256, (int) DOWNLOAD_CHUNK_SIZE, progress::update);
+                    } catch (IOException exception) {
+                        if (!call.isCanceled()) {
+                            onPatchFailed(exception, runnable);
+                        }
+
+                        return;
+                    }
+
+                    state.reset(url, version);
+                    state.length = partFile.length();
+                    state.written = state.length;
+                    state.save();
+
+                    Log.i("Patch applied", "uri: " + patchUrl + ", version: " + version);
+
+                    onDownloadCompleted(runnable);
+                }
+            });
+        }
+
+        private void onPatchFailed(IOException exception, Runnable runnable) {
+            if (released) {
+                return;
+            }
+
+            Log.w("Patch failed", "uri: " + patchUrl + ", falling back to " + url + ", error: " + exception);
+
+            downloadCall = null;
+            patchFailed = true;
+
+            if (partFile.exists()) {
+                partFile.delete();
+            }
+
+            state.reset(url, version);
+            state.save();
+
+            download(runnable);
+        }
+
+        private void downloadSingle(Runnable runnable) {
+            if (null != state.segments) {
+                partFile.delete();
+                state.reset(url, version);
+                state.save();
+            }
+
+            final long offset = partFile.exists() ? partFile.length() : 0;
+
+            OkHttpClient client = HttpClient.newBuilder(DOWNLOAD_TIMEOUT, TimeUnit.SECONDS)
                 .addNetworkInterceptor(new Interceptor() {
                     @NonNull
                     @Override
                     public Response intercept(@NonNull Chain chain) throws IOException {
                         Response originalResponse = chain.proceed(chain.request());
+                        long bodyOffset = HttpURLConnection.HTTP_PARTIAL == originalResponse.code() ? offset : 0;
                         return originalResponse.newBuilder()
-                            .body(new ProgressResponseBody(originalResponse.body()))
+                            .body(new ProgressResponseBody(originalResponse.body(), bodyOffset))
                             .build();
                     }
                 })
                 .build();
 
-            downloadCall = client.newCall(new Request.Builder().url(this.url).build());
+            Request.Builder request = new Request.Builder().url(this.url);
+
+            if (offset > 0) {
+                request.header("Range", "bytes=" + offset + "-");
+
+                if (null != state.getValidator()) {
+                    request.header("If-Range", state.getValidator());
+                }
+            }
+
+            downloadCall = client.newCall(request.build());
             downloadCall.enqueue(new Callback() {
                 @Override
                 public void onFailure(@NonNull Call call, @NonNull IOException exception) {
-                    onDownloadFailed(exception);
+                    if (!call.isCanceled()) {
+                        onDownloadFailed(exception, offset);
+                    }
                 }
 
                 @Override
                 public void onResponse(@NonNull Call call, @NonNull Response response) {
-                    onDownloadSucceed(response, runnable);
+                    try (Response downloadResponse = response) {
+                        onDownloadSucceed(call, downloadResponse, runnable, offset);
+                    }
                 }
             });
         }
 
-        private void onDownloadFailed(IOException exception) {
+        private void onDownloadFailed(IOException exception, long offset) {
+            onDownloadFailed(exception, offset, true);
+        }
+
+        private void onDownloadFailed(IOException exception, long offset, boolean retriable) {
+            if (released || (null != downloadCall && downloadCall.isCanceled())) {
+                return;
+            }
+
+            downloadCall = null;
+            state.written = getWrittenBytes();
+            state.save();
+
+            if (state.written > offset) {
+                attempts = 0;
+            }
+
+            if (retriable && ++attempts < DOWNLOAD_MAX_ATTEMPTS) {
+                long delay = Math.min(DOWNLOAD_RETRY_MAX_DELAY, DOWNLOAD_RETRY_DELAY << (attempts - 1));
+                Log.w("Download interrupted", "uri: " + url + ", written: " + state.written + ", retry in " + delay + "ms, error: " + exception);
+                retryHandler.postDelayed(retryRunnable, delay);
+                return;
+            }
+
             if (null != onDownloadChange) {
                 onDownloadChange.call(-1);
             }
@@ -322,53 +644,125 @@ public class PackageController extends DefaultJSInterface {
                 public void run() {
                     showToast(R.string.download_failed);
                     Log.e("Download failed", "uri: " + url + ", error: " + exception);
+
+                    if (packageManager == PackageManager.this) {
+                        PackageController.this.release();
+                    }
                 }
             });
-
-            downloadCall = null;
         }
 
-        private void onDownloadSucceed(@NonNull Response response, @NonNull Runnable runnable) {
-            if (response.isSuccessful()) {
+        private long getTotalLength(@NonNull Response response, long offset) {
+            String contentRange = response.header("Content-Range");
+
+            if (null != contentRange && contentRange.lastIndexOf('/') != -1) {
                 try {
-                    FileOutputStream outputStream = new FileOutputStream(apkFile);
-                    outputStream.write(response.body().bytes());
-                    outputStream.close();
+                    return Long.parseLong(contentRange.substring(contentRange.lastIndexOf('/') + 1).trim());
+                } catch (NumberFormatException ignore) {
+                }
+            }
 
-                    if (null != onDownloadChange) {
-                        onDownloadChange.call(100);
-                    }
+            long contentLength = response.body().contentLength();
 
-                    activity.runOnUiThread(new Runnable() {
-                        public void run() {
-                            showToast(R.string.download_completed);
-                            Log.i("Download completed", "uri: " + url + ", version: " + version);
-                        }
-                    });
+            return contentLength < 0 ? -1 : offset + contentLength;
+        }
+
+        private void onDownloadSucceed(@NonNull Call call, @NonNull Response response, @NonNull Runnable runnable, long offset) {
+            final boolean partial = HttpURLConnection.HTTP_PARTIAL == response.code();
+
+            if (HTTP_RANGE_NOT_SATISFIABLE == response.code() && offset > 0 && offset == state.length) {
+                state.written = offset;
+                onDownloadCompleted(runnable);
+            } else if (HTTP_RANGE_NOT_SATISFIABLE == response.code()) {
+                partFile.delete();
+                state.reset(url, version);
+                state.save();
+                onDownloadFailed(new IOException("Partial package is out of date: " + response), offset);
+            } else if (response.isSuccessful()) {
+                if (!partial) {
+                    state.reset(url, version);
+                    state.etag = response.header("ETag");
+                    state.lastModified = response.header("Last-Modified");
+                }
+
+                state.length = getTotalLength(response, partial ? offset : 0);
+                state.written = partial ? offset : 0;
+                state.save();
 
-                    runnable.run();
+                try (BufferedSource source = response.body().source(); BufferedSink sink = Okio.buffer(partial ? Okio.appendingSink(partFile) : Okio.sink(partFile))) {
+                    state.written += ChunkedCopy.copy(source, sink, DOWNLOAD_CHUNK_SIZE);
                 } catch (IOException exception) {
-                    onDownloadFailed(exception);
+                    if (!call.isCanceled()) {
+                        onDownloadFailed(exception, offset);
+                    }
+
+                    return;
+                }
+
+                if (state.length < 0) {
+                    state.length = state.written;
+                }
+
+                if (state.written == state.length) {
+                    onDownloadCompleted(runnable);
+                } else {
+                    onDownloadFailed(new IOException("Unexpected end of package: " + state.written + " of " + state.length), offset);
                 }
             } else {
-                onDownloadFailed(new IOException("Failed to download file: " + response));
+                onDownloadFailed(new IOException("Failed to download file: " + response), offset, isRetriable(response.code()));
+            }
+        }
+
+        private void onDownloadCompleted(@NonNull Runnable runnable) {
+            if (released) {
+                return;
             }
 
             downloadCall = null;
+            attempts = 0;
+
+            if (apkFile.exists()) {
+                apkFile.delete();
+            }
+
+            if (!partFile.renameTo(apkFile)) {
+                onDownloadFailed(new IOException("Cannot move " + partFile + " to " + apkFile), state.written);
+                return;
+            }
+
+            state.save();
+
+            if (null != onDownloadChange) {
+                onDownloadChange.call(100);
+            }
+
+            activity.runOnUiThread(new Runnable() {
+                public void run() {
+                    showToast(R.string.download_completed);
+                    Log.i("Download completed", "uri: " + url + ", version: " + version);
+                }
+            });
+
+            runnable.run();
         }
     }
 
     @NativeCall(CallType.FULL_SYNC)
     public ApplicationInfo getInfo() {
-        try {
-            final Resources res = activity.getResources();
-            final android.content.pm.PackageManager pm = activity.getPackageManager();
-            final PackageInfo packageInfo = pm.getPackageInfo(activity.getPackageName(), 0);
+        return ApplicationInfo.getSelf(activity);
+    }
+
+    @NativeCall(CallType.FULL_PROMISE)
+    public Promise<String> getIcon() {
+        return doInBackground((promise) -> {
+            try {
+                promise.resolve(ApplicationInfo.getSelfIcon(activity));
+            } catch (Exception e) {
+                promise.reject(e);
+            }
 
-            return new ApplicationInfo(packageInfo, res.getString(R.string.flavor), res.getString(R.string.branch), res.getString(R.string.commit), pm);
-        } catch (Exception ignore) {
             return null;
-        }
+        });
     }
 
     @NativeCall(CallType.FULL_SYNC)
@@ -379,6 +773,14 @@ public class PackageController extends DefaultJSInterface {
         }
     }
 
+    @NativeCall(CallType.FULL_SYNC)
+    public void updatePackageDelta(@NonNull String patchUrl, @NonNull String sha256, @NonNull String packageUrl, @NonNull String version) {
+        if (null == packageManager) {
+            packageManager = new PackageManager(packageUrl, version, patchUrl, sha256);
+            packageManager.update();
+        }
+    }
+
     @NativeCall(CallType.FULL_SYNC)
     public void cancelUpdate() {
         if (null != onDownloadChange) {
@@ -386,6 +788,11 @@ public class PackageController extends DefaultJSInterface {
             onDownloadChange = null;
         }
 
+        if (null != onDownloadBytesChange) {
+            onDownloadBytesChange.close();
+            onDownloadBytesChange = null;
+        }
+
         if (null != onProgressChange) {
             onProgressChange.close();
             onProgressChange = null;
@@ -394,11 +801,26 @@ public class PackageController extends DefaultJSInterface {
         dispose();
     }
 
+    @NativeCall(CallType.FULL_SYNC)
+    public void setDownloadSegments(Integer segments) {
+        downloadSegments = Math.max(1, Math.min(DOWNLOAD_MAX_SEGMENTS, segments));
+    }
+
     @NativeCall(CallType.FULL_SYNC)
     public void onDownloadProgress(JSFunctionWithArg<Integer> callback) {
         onDownloadChange = callback;
     }
 
+    @NativeCall(CallType.FULL_SYNC)
+    public void onDownloadBytesProgress(JSFunctionWithArg<Long> callback) {
+        onDownloadBytesChange = callback;
+    }
+
+    @NativeCall(CallType.FULL_SYNC)
+    public void setProgressInterval(Integer milliseconds) {
+        progressInterval = Math.max(0, milliseconds);
+    }
+
     @NativeCall(CallType.FULL_SYNC)
     public void onInstallProgress(JSFunctionWithArg<Integer> callback) {
         onProgressChange = callback;
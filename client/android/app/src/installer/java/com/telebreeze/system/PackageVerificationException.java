@@ -0,0 +1,9 @@
+package com.sample.system;
+
+import java.io.IOException;
+
+final class PackageVerificationException extends IOException {
+    PackageVerificationException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,310 @@
+package com.sample.system;
+
+import android.util.Base64;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import okhttp3.Call;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSource;
+import okio.HashingSource;
+import okio.Okio;
+
+final class SegmentedDownload {
+    public interface ProgressListener {
+        void onProgress(long written, long length);
+    }
+
+    private final OkHttpClient client;
+    private final String url;
+    private final File file;
+    private final DownloadState state;
+    private final int chunkSize;
+    private final ProgressListener listener;
+    private final List<Call> calls = new CopyOnWriteArrayList<>();
+
+    private ExecutorService executor;
+    private String sha256;
+    private volatile boolean canceled = false;
+
+    public SegmentedDownload(@NonNull OkHttpClient client, @NonNull String url, @NonNull File file, @NonNull DownloadState state, int chunkSize, @NonNull ProgressListener listener) {
+        this.client = client;
+        this.url = url;
+        this.file = file;
+        this.state = state;
+        this.chunkSize = chunkSize;
+        this.listener = listener;
+    }
+
+    public static boolean isSupported(@NonNull Response head) {
+        return head.isSuccessful() && "bytes".equalsIgnoreCase(head.header("Accept-Ranges")) && getLength(head) > 0;
+    }
+
+    private static long getLength(@NonNull Response head) {
+        try {
+            return Long.parseLong(head.header("Content-Length", "-1"));
+        } catch (NumberFormatException ignore) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads a SHA-256 representation digest advertised by the server, either as RFC 9530
+     * {@code Repr-Digest: sha-256=:<base64>:} or as RFC 3230 {@code Digest: SHA-256=<base64>}.
+     */
+    @Nullable
+    private static String getDigest(@NonNull Response head) {
+        for (String name : new String[] {"Repr-Digest", "Digest"}) {
+            String header = head.header(name);
+
+            if (null == header) {
+                continue;
+            }
+
+            for (String entry : header.split(",")) {
+                int separator = entry.indexOf('=');
+
+                if (separator > 0 && "sha-256".equalsIgnoreCase(entry.substring(0, separator).trim())) {
+                    try {
+                        return Utils.toHex(Base64.decode(entry.substring(separator + 1).trim().replace(":", ""), Base64.DEFAULT));
+                    } catch (IllegalArgumentException ignore) {
+                    }
+                }
+            }
+        }
+
+        return null;
+    }
+
+    public boolean hasDigest() {
+        return null != sha256;
+    }
+
+    public boolean isCanceled() {
+        return canceled;
+    }
+
+    public void cancel() {
+        canceled = true;
+
+        for (Call call : calls) {
+            call.cancel();
+        }
+
+        if (null != executor) {
+            executor.shutdownNow();
+        }
+    }
+
+    public void run(@NonNull Response head, int segmentCount) throws IOException {
+        final long length = getLength(head);
+
+        sha256 = getDigest(head);
+        prepare(head, length, segmentCount);
+
+        final long segmentSize = (length + segmentCount - 1) / segmentCount;
+        final List<Future<Void>> futures = new ArrayList<>();
+
+        executor = Executors.newFixedThreadPool(segmentCount);
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw"); FileChannel channel = randomAccessFile.getChannel()) {
+            for (int i = 0; i < segmentCount; i++) {
+                final int index = i;
+                final long start = index * segmentSize;
+                final long end = Math.min(length, start + segmentSize) - 1;
+
+                futures.add(executor.submit(() -> {
+                    fetch(channel, index, start, end);
+                    return null;
+                }));
+            }
+
+            IOException failure = null;
+
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException exception) {
+                    if (null == failure) {
+                        failure = exception.getCause() instanceof IOException ? (IOException) exception.getCause() : new IOException(exception.getCause());
+                        cancel();
+                    }
+                } catch (InterruptedException exception) {
+                    Thread.currentThread().interrupt();
+                    cancel();
+                    throw new IOException("Segmented download is interrupted", exception);
+                }
+            }
+
+            if (null != failure) {
+                throw failure;
+            }
+        } finally {
+            executor.shutdownNow();
+
+            synchronized (state) {
+                state.written = getWritten();
+                state.save();
+            }
+        }
+
+        verify(length, segmentSize);
+    }
+
+    private void prepare(@NonNull Response head, long length, int segmentCount) throws IOException {
+        final String etag = head.header("ETag");
+        final String lastModified = head.header("Last-Modified");
+
+        synchronized (state) {
+            boolean resumable = null != state.segments
+                && state.segments.length == segmentCount
+                && state.length == length
+                && file.length() == length
+                && Objects.equals(state.etag, etag)
+                && Objects.equals(state.lastModified, lastModified);
+
+            if (resumable) {
+                Log.i("Segmented download", "Resuming " + url + " from " + getWritten() + " of " + length);
+                return;
+            }
+
+            state.reset(state.url, state.version);
+            state.etag = etag;
+            state.lastModified = lastModified;
+            state.length = length;
+            state.segments = new long[segmentCount];
+            state.save();
+        }
+
+        try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+            randomAccessFile.setLength(length);
+        }
+    }
+
+    private void fetch(@NonNull FileChannel channel, int index, long start, long end) throws IOException {
+        long position;
+
+        synchronized (state) {
+            position = start + state.segments[index];
+        }
+
+        if (position > end) {
+            return;
+        }
+
+        Request.Builder request = new Request.Builder()
+            .url(url)
+            .header("Range", "bytes=" + position + "-" + end);
+
+        if (null != state.getValidator()) {
+            request.header("If-Range", state.getValidator());
+        }
+
+        Call call = client.newCall(request.build());
+        calls.add(call);
+
+        if (canceled) {
+            call.cancel();
+        }
+
+        try (Response response = call.execute()) {
+            if (HttpURLConnection.HTTP_PARTIAL != response.code()) {
+                throw new IOException("Segment " + index + " is not served as a range: " + response);
+            }
+
+            BufferedSource source = response.body().source();
+            ByteBuffer buffer = ByteBuffer.allocate(chunkSize);
+
+            while (position <= end) {
+                buffer.clear();
+                buffer.limit((int) Math.min(chunkSize, end - position + 1));
+
+                int bytesRead = source.read(buffer);
+
+                if (-1 == bytesRead) {
+                    throw new IOException("Unexpected end of segment " + index + " at " + position);
+                }
+
+                buffer.flip();
+
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+
+                long written;
+
+                synchronized (state) {
+                    state.segments[index] += bytesRead;
+                    written = getWritten();
+                }
+
+                listener.onProgress(written, state.length);
+            }
+        } finally {
+            calls.remove(call);
+        }
+    }
+
+    private long getWritten() {
+        long written = 0;
+
+        for (long segment : state.segments) {
+            written += segment;
+        }
+
+        return written;
+    }
+
+    private void verify(long length, long segmentSize) throws IOException {
+        synchronized (state) {
+            for (int i = 0; i < state.segments.length; i++) {
+                long expected = Math.max(0, Math.min(length, (i + 1) * segmentSize) - i * segmentSize);
+
+                if (state.segments[i] != expected) {
+                    throw new IOException("Segment " + i + " is incomplete: " + state.segments[i] + " of " + expected);
+                }
+            }
+        }
+
+        if (file.length() != length) {
+            throw new IOException("Unexpected package size: " + file.length() + " of " + length);
+        }
+
+        if (null != sha256) {
+            String hash = hash(file);
+
+            if (!hash.equalsIgnoreCase(sha256)) {
+                throw new PackageVerificationException("Package hash mismatch: " + hash + " instead of " + sha256);
+            }
+        }
+    }
+
+    @NonNull
+    private static String hash(@NonNull File file) throws IOException {
+        try (HashingSource source = HashingSource.sha256(Okio.source(file)); BufferedSource bufferedSource = Okio.buffer(source)) {
+            bufferedSource.readAll(Okio.blackhole());
+            return source.hash().hex();
+        }
+    }
+}
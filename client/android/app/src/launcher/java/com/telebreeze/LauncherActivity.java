@@ -7,12 +7,12 @@ import android.content.Context;
 import android.content.DialogInterface;
 import android.content.Intent;
 import android.content.IntentFilter;
-import android.os.CountDownTimer;
 import android.os.SystemClock;
 
-import com.sample.helpers.Utils;
-
 public class LauncherActivity extends InstallerActivity {
+    private static final long LAUNCHER_RECONNECT_DELAY = 2000;
+    private static final long LAUNCHER_RECONNECT_MAX_DELAY = 60000;
+
     private final BroadcastReceiver homeKeyListener = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -29,33 +29,19 @@ public class LauncherActivity extends InstallerActivity {
     };
 
     @Override
-    protected void launchReconnectTimer() {
-        timer = new CountDownTimer(30000, 2000) {
-            @Override
-            public void onTick(long millisUntilFinished) {
-                Utils.ping(
-                    getString(R.string.portalUrl),
-                    () -> {
-                        if (null != timer) {
-                            timer.cancel();
-                            timer = null;
-                            runOnUiThread(LauncherActivity.this::start);
-                        }
-                    },
-                    () -> {
-                        if (SystemClock.elapsedRealtime() > 60000) {
-                            runOnUiThread(LauncherActivity.this::showAlert);
-                        }
-                    }
-                );
-            }
-
-            @Override
-            public void onFinish() {
-                launchReconnectTimer();
+    protected ReconnectScheduler createReconnectScheduler() {
+        return new ReconnectScheduler(
+            this,
+            getString(R.string.portalUrl),
+            LAUNCHER_RECONNECT_DELAY,
+            LAUNCHER_RECONNECT_MAX_DELAY,
+            this::start,
+            () -> {
+                if (SystemClock.elapsedRealtime() > 60000) {
+                    showAlert();
+                }
             }
-        };
-        timer.start();
+        );
     }
 
     @Override
@@ -0,0 +1,200 @@
+package com.sample;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.andycandy.android.bridge.CallType;
+import de.andycandy.android.bridge.DefaultJSInterface;
+import de.andycandy.android.bridge.NativeCall;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+public class BatchController extends DefaultJSInterface {
+    private static final String TAG = "BatchController";
+    private static final int THREADS = 4;
+
+    private final Map<String, Object> interfaces = new HashMap<>();
+    private final Map<String, Method> methods = new ConcurrentHashMap<>();
+    private ExecutorService executor;
+
+    public BatchController() {
+        super("batch");
+    }
+
+    public BatchController register(@NonNull String name, @NonNull DefaultJSInterface jsInterface) {
+        interfaces.put(name, jsInterface);
+
+        return this;
+    }
+
+    @NativeCall(CallType.FULL_SYNC)
+    public List<Map<String, Object>> call(String calls, Boolean parallel) {
+        final List<Map<String, Object>> results = new ArrayList<>();
+        final JSONArray descriptors;
+
+        try {
+            descriptors = new JSONArray(calls);
+        } catch (JSONException e) {
+            results.add(createError(e));
+            return results;
+        }
+
+        if (null == parallel || !parallel || descriptors.length() < 2) {
+            for (int i = 0; i < descriptors.length(); i++) {
+                results.add(invoke(descriptors.optJSONObject(i)));
+            }
+
+            return results;
+        }
+
+        final List<Future<Map<String, Object>>> futures = new ArrayList<>();
+
+        for (int i = 0; i < descriptors.length(); i++) {
+            final JSONObject descriptor = descriptors.optJSONObject(i);
+            futures.add(getExecutor().submit(() -> invoke(descriptor)));
+        }
+
+        for (Future<Map<String, Object>> future : futures) {
+            try {
+                results.add(future.get());
+            } catch (ExecutionException e) {
+                results.add(createError(e.getCause()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                results.add(createError(e));
+            }
+        }
+
+        return results;
+    }
+
+    public synchronized void shutdown() {
+        if (null != executor) {
+            executor.shutdown();
+            executor = null;
+        }
+    }
+
+    private synchronized ExecutorService getExecutor() {
+        if (null == executor) {
+            executor = Executors.newFixedThreadPool(THREADS);
+        }
+
+        return executor;
+    }
+
+    @NonNull
+    private Map<String, Object> invoke(JSONObject descriptor) {
+        if (null == descriptor) {
+            return createError(new IllegalArgumentException("Invalid call descriptor"));
+        }
+
+        final String name = descriptor.optString("interface");
+        final String methodName = descriptor.optString("method");
+        final JSONArray args = descriptor.optJSONArray("args");
+        final int argsCount = null != args ? args.length() : 0;
+        final Object target = interfaces.get(name);
+
+        try {
+            if (null == target) {
+                throw new NoSuchMethodException("Unknown interface " + name);
+            }
+
+            final Method method = getMethod(name, target, methodName, argsCount);
+            final Class<?>[] types = method.getParameterTypes();
+            final Object[] values = new Object[argsCount];
+
+            for (int i = 0; i < argsCount; i++) {
+                values[i] = convert(args.isNull(i) ? null : args.get(i), types[i]);
+            }
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("value", method.invoke(target, values));
+
+            return result;
+        } catch (InvocationTargetException e) {
+            return createError(e.getCause());
+        } catch (Exception e) {
+            return createError(e);
+        }
+    }
+
+    @NonNull
+    private Method getMethod(String name, Object target, String methodName, int argsCount) throws NoSuchMethodException {
+        final String key = name + "." + methodName + "/" + argsCount;
+        Method method = methods.get(key);
+
+        if (null != method) {
+            return method;
+        }
+
+        for (Method candidate : target.getClass().getMethods()) {
+            NativeCall annotation = candidate.getAnnotation(NativeCall.class);
+
+            if (null != annotation
+                && CallType.FULL_SYNC == annotation.value()
+                && candidate.getName().equals(methodName)
+                && candidate.getParameterTypes().length == argsCount) {
+                methods.put(key, candidate);
+                return candidate;
+            }
+        }
+
+        throw new NoSuchMethodException("Unknown synchronous call " + name + "." + methodName + " with " + argsCount + " arguments");
+    }
+
+    private static Object convert(Object value, Class<?> type) {
+        if (null == value || type.isInstance(value)) {
+            return value;
+        }
+
+        if (value instanceof Number) {
+            Number number = (Number) value;
+
+            if (Integer.class == type || int.class == type) {
+                return number.intValue();
+            } else if (Long.class == type || long.class == type) {
+                return number.longValue();
+            } else if (Double.class == type || double.class == type) {
+                return number.doubleValue();
+            } else if (Float.class == type || float.class == type) {
+                return number.floatValue();
+            }
+        }
+
+        if (boolean.class == type && value instanceof Boolean) {
+            return value;
+        }
+
+        if (String.class == type) {
+            return value.toString();
+        }
+
+        throw new IllegalArgumentException("Cannot pass " + value + " as " + type.getSimpleName());
+    }
+
+    @NonNull
+    private static Map<String, Object> createError(Throwable throwable) {
+        Log.w(TAG, "Batch call failed: " + throwable);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("error", String.valueOf(throwable));
+
+        return result;
+    }
+}
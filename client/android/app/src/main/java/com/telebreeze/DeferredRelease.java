@@ -0,0 +1,64 @@
+package com.sample;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+public class DeferredRelease {
+    private static final String TAG = "DeferredRelease";
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Runnable releaseRunnable = this::release;
+    private final String name;
+    private final Runnable onRelease;
+    private boolean pending = false;
+
+    public DeferredRelease(@NonNull String name, @NonNull Runnable onRelease) {
+        this.name = name;
+        this.onRelease = onRelease;
+    }
+
+    public boolean isPending() {
+        return pending;
+    }
+
+    public void schedule(long delay) {
+        handler.removeCallbacks(releaseRunnable);
+        pending = true;
+
+        if (delay <= 0) {
+            release();
+            return;
+        }
+
+        Log.i(TAG, "Release " + name + " in " + delay + "ms");
+        handler.postDelayed(releaseRunnable, delay);
+    }
+
+    public boolean cancel() {
+        if (!pending) {
+            return false;
+        }
+
+        Log.i(TAG, "Keep " + name);
+        handler.removeCallbacks(releaseRunnable);
+        pending = false;
+
+        return true;
+    }
+
+    public void releaseNow() {
+        if (pending) {
+            handler.removeCallbacks(releaseRunnable);
+            release();
+        }
+    }
+
+    private void release() {
+        Log.i(TAG, "Release " + name);
+        pending = false;
+        onRelease.run();
+    }
+}
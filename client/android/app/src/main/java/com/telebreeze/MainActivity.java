@@ -2,66 +2,87 @@ package com.sample;
 
 import android.app.Activity;
 import android.app.AlertDialog;
+import android.content.ComponentCallbacks2;
 import android.content.DialogInterface;
 import android.content.res.Configuration;
 import android.os.Bundle;
-import android.os.CountDownTimer;
 import android.util.Log;
 import android.view.KeyEvent;
 import android.view.WindowManager;
+import android.webkit.WebSettings;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 import androidx.core.splashscreen.SplashScreen;
 
-import com.sample.helpers.Utils;
+import com.sample.player.SegmentInterceptor;
+import com.sample.portal.PortalBundle;
+import com.sample.portal.PortalBundleUpdater;
+import com.sample.portal.PortalCache;
+import com.sample.portal.PortalController;
 import com.sample.system.DeviceController;
 import com.sample.system.PackageController;
+import com.sample.system.PerformanceTier;
 import com.sample.system.RemoteKeyEvent;
 
 public class MainActivity extends Activity {
     protected static final String TAG = "SampleActivity";
+    protected static final long RECONNECT_DELAY = 10000;
+    protected static final long RECONNECT_MAX_DELAY = 300000;
+    protected static final long PLAYER_RELEASE_DELAY = 30000;
+    protected static final long PLAYER_RELEASE_LOW_TIER_DELAY = 5000;
+    protected static final String PHASE_WEBVIEW_PREWARM = "webViewPrewarm";
+    protected static final String PHASE_DEVICE_INFO = "deviceInfo";
+    protected static final String PHASE_DEVICE_PROFILE = "deviceProfile";
+    protected static final String PHASE_PACKAGE_INFO = "packageInfo";
 
     protected WebViewController webViewController;
     protected PackageController packageController;
     protected PlayerController playerController;
     protected DeviceController deviceController;
+    protected PortalController portalController;
+    protected PortalBundleUpdater portalBundleUpdater;
+    protected BatchController batchController;
 
-    protected CountDownTimer timer;
+    protected ReconnectScheduler reconnectScheduler;
+    protected DeferredRelease playerRelease;
+    protected StartupPipeline startupPipeline;
     protected Boolean booted = false;
+    protected Boolean started = false;
     protected Boolean loaded = false;
     protected AlertDialog alert = null;
 
+    private final RemoteKeyEvent remoteKeyEvent = new RemoteKeyEvent();
+
     protected void onLoaded() {
         dismissAlert();
         booted = true;
         loaded = true;
+        reportFullyDrawn();
+
+        if (null != startupPipeline) {
+            startupPipeline.mark("pageLoaded");
+            startupPipeline.report();
+        }
+
+        if (null != portalBundleUpdater) {
+            portalBundleUpdater.check();
+        }
+
+        deviceController.scheduleBenchmark();
+    }
+
+    protected ReconnectScheduler createReconnectScheduler() {
+        return new ReconnectScheduler(this, getString(R.string.portalUrl), RECONNECT_DELAY, RECONNECT_MAX_DELAY, this::start, this::showAlert);
     }
 
     protected void launchReconnectTimer() {
-        timer = new CountDownTimer(30000, 10000) {
-            @Override
-            public void onTick(long millisUntilFinished) {
-                Utils.ping(
-                    getString(R.string.portalUrl),
-                    () -> {
-                        if (null != timer) {
-                            timer.cancel();
-                            timer = null;
-                            runOnUiThread(MainActivity.this::start);
-                        }
-                    },
-                    () -> runOnUiThread(MainActivity.this::showAlert)
-                );
-            }
+        if (null == reconnectScheduler) {
+            reconnectScheduler = createReconnectScheduler();
+        }
 
-            @Override
-            public void onFinish() {
-                launchReconnectTimer();
-            }
-        };
-        timer.start();
+        reconnectScheduler.start();
     }
 
     protected void dismissAlert() {
@@ -106,9 +127,26 @@ public class MainActivity extends Activity {
     }
 
     protected void start() {
+        started = true;
         webViewController.start(this::onLoaded, this::launchReconnectTimer, this::showSslErrorAlert);
     }
 
+    protected void pausePlayer() {
+        webViewController.dispatchMediaKeyEvent(KeyEvent.KEYCODE_MEDIA_PAUSE);
+    }
+
+    protected void resumePlayer() {
+        webViewController.dispatchMediaKeyEvent(KeyEvent.KEYCODE_MEDIA_PLAY);
+    }
+
+    protected void releasePlayer() {
+        playerController.releasePlayer();
+    }
+
+    protected long getPlayerReleaseDelay() {
+        return PerformanceTier.LOW.equals(deviceController.getLoadedPerformanceTier(PerformanceTier.MEDIUM)) ? PLAYER_RELEASE_LOW_TIER_DELAY : PLAYER_RELEASE_DELAY;
+    }
+
     protected void restoreFromState(Bundle savedInstanceState) {
         webViewController.restoreState(savedInstanceState);
     }
@@ -121,6 +159,9 @@ public class MainActivity extends Activity {
 
     @Override
     protected void onCreate(@Nullable Bundle savedInstanceState) {
+        startupPipeline = new StartupPipeline()
+            .background(PHASE_WEBVIEW_PREWARM, () -> WebSettings.getDefaultUserAgent(getApplicationContext()));
+
         super.onCreate(savedInstanceState);
 
         getWindow().addFlags(WindowManager.LayoutParams.FLAG_KEEP_SCREEN_ON);
@@ -130,15 +171,43 @@ public class MainActivity extends Activity {
             SplashScreen splashScreen = SplashScreen.installSplashScreen(this);
             splashScreen.setKeepOnScreenCondition(() -> !booted);
 
-            setContentView(R.layout.activity_main);
-
             packageController = new PackageController(this);
             deviceController = new DeviceController(this);
-            webViewController = new WebViewController(this);
+            startupPipeline
+                .background(PHASE_DEVICE_INFO, deviceController::preloadInfo)
+                .background(PHASE_DEVICE_PROFILE, deviceController::preloadProfile, PHASE_DEVICE_INFO)
+                .background(PHASE_PACKAGE_INFO, () -> Log.i(TAG, "PACKAGE, " + packageController.getInfo().getApkVersion()))
+                .run("contentView", () -> setContentView(R.layout.activity_main))
+                .run("webView", () -> webViewController = new WebViewController(this));
+
             playerController = new PlayerController(this, webViewController);
+            playerRelease = new DeferredRelease("player", this::releasePlayer);
+            PortalCache portalCache = new PortalCache(this, getString(R.string.portalUrl));
+            PortalBundle portalBundle = BuildConfig.BUNDLED_PORTAL ? new PortalBundle(this, getString(R.string.portalUrl)) : null;
+            portalController = new PortalController(this, webViewController, portalCache, portalBundle);
             webViewController.addJSInterface(packageController);
             webViewController.addJSInterface(deviceController);
             webViewController.addJSInterface(playerController);
+            webViewController.addJSInterface(portalController);
+            batchController = new BatchController()
+                .register("device", deviceController)
+                .register("package", packageController)
+                .register("portal", portalController);
+            webViewController.addJSInterface(batchController);
+            webViewController.addRequestInterceptor(new NativeResourceLoader(getString(R.string.portalUrl))
+                .addPathHandler(DeviceController.ICONS_PATH, deviceController.getIconsHandler())
+                .addPathHandler(DeviceController.DEVICE_PATH, deviceController.getDeviceHandler()));
+
+            if (null != portalBundle) {
+                portalBundleUpdater = new PortalBundleUpdater(portalBundle, getString(R.string.portalUrl));
+                webViewController.addRequestInterceptor(portalBundle);
+            }
+
+            webViewController.addRequestInterceptor(new SegmentInterceptor(this));
+            webViewController.addRequestInterceptor(portalCache);
+
+            start();
+            startupPipeline.mark("loadStarted");
         } else {
             Log.i(TAG, "RESTORE");
             restoreFromState(savedInstanceState);
@@ -147,9 +216,14 @@ public class MainActivity extends Activity {
 
     @Override
     protected void onStart() {
-        Log.i(TAG, "START, " + packageController.getInfo().getApkVersion());
+        Log.i(TAG, "START");
         super.onStart();
-        playerController.initializePlayer();
+
+        if (playerRelease.cancel()) {
+            resumePlayer();
+        } else {
+            playerController.initializePlayer();
+        }
     }
 
     @Override
@@ -157,7 +231,7 @@ public class MainActivity extends Activity {
         Log.i(TAG, "RESUME");
         super.onResume();
 
-        if (!loaded) {
+        if (!loaded && !started) {
             start();
         }
     }
@@ -173,12 +247,13 @@ public class MainActivity extends Activity {
     protected void onStop() {
         Log.i(TAG, "STOP");
         super.onStop();
-        playerController.releasePlayer();
+        pausePlayer();
+        playerRelease.schedule(getPlayerReleaseDelay());
         dismissAlert();
+        started = loaded;
 
-        if (null != timer) {
-            timer.cancel();
-            timer = null;
+        if (null != reconnectScheduler) {
+            reconnectScheduler.stop();
         }
     }
 
@@ -186,6 +261,22 @@ public class MainActivity extends Activity {
     protected void onDestroy() {
         Log.i(TAG, "DESTROY");
         super.onDestroy();
+        startupPipeline.shutdown();
+        playerRelease.releaseNow();
+
+        if (null != batchController) {
+            batchController.shutdown();
+        }
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW && null != playerRelease && playerRelease.isPending()) {
+            Log.i(TAG, "TRIM MEMORY " + level);
+            playerRelease.releaseNow();
+        }
     }
 
     @Override
@@ -199,20 +290,27 @@ public class MainActivity extends Activity {
 
     @Override
     public boolean dispatchKeyEvent(KeyEvent event) {
-        RemoteKeyEvent remoteKeyEvent = new RemoteKeyEvent(event);
+        switch (RemoteKeyEvent.getType(event.getKeyCode())) {
+            case RemoteKeyEvent.TYPE_VOLUME:
+                return super.dispatchKeyEvent(event);
+            case RemoteKeyEvent.TYPE_MEDIA:
+                webViewController.onMediaButtonEvent(event);
+                return true;
+            default:
+                if (event.getRepeatCount() > 0 && !deviceController.acceptKeyRepeat()) {
+                    return true;
+                }
 
-        if (remoteKeyEvent.isVolumeKey()) {
-            return super.dispatchKeyEvent(remoteKeyEvent);
-        } else if (remoteKeyEvent.isMediaKey()) {
-            webViewController.onMediaButtonEvent(event);
-            return true;
-        } else {
-            super.dispatchKeyEvent(remoteKeyEvent);
-            deviceController.onKeyPressed(remoteKeyEvent);
-            return false;
+                super.dispatchKeyEvent(event);
+                deviceController.onKeyPressed(remoteKeyEvent.set(event));
+                return false;
         }
     }
 
+    public WebViewController getWebViewController() {
+        return webViewController;
+    }
+
     public void nativeBackPress() {
         super.onBackPressed();
     }
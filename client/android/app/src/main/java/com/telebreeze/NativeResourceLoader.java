@@ -0,0 +1,95 @@
+package com.sample;
+
+import android.net.Uri;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.webkit.WebViewAssetLoader;
+
+import java.io.ByteArrayInputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+public class NativeResourceLoader implements WebViewController.RequestInterceptor {
+    public static final String DOMAIN = WebViewAssetLoader.DEFAULT_DOMAIN;
+    public static final String ORIGIN = "https://" + DOMAIN;
+
+    private final Map<String, WebViewAssetLoader.PathHandler> handlers = new HashMap<>();
+    private final String allowedOrigin;
+    private WebViewAssetLoader loader;
+
+    public NativeResourceLoader(@NonNull String portalUrl) {
+        this.allowedOrigin = getOrigin(Uri.parse(portalUrl));
+    }
+
+    public synchronized NativeResourceLoader addPathHandler(@NonNull String path, @NonNull WebViewAssetLoader.PathHandler handler) {
+        handlers.put(path, handler);
+        loader = null;
+
+        return this;
+    }
+
+    public static WebResourceResponse createResponse(@NonNull String mimeType, @NonNull byte[] data) {
+        return new WebResourceResponse(mimeType, null, new ByteArrayInputStream(data));
+    }
+
+    public static WebResourceResponse createNotFoundResponse() {
+        return new WebResourceResponse("text/plain", null, 404, "Not Found", null, new ByteArrayInputStream(new byte[0]));
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(@NonNull WebResourceRequest request) {
+        if (!DOMAIN.equals(request.getUrl().getHost())) {
+            return null;
+        }
+
+        WebResourceResponse response = getLoader().shouldInterceptRequest(request.getUrl());
+
+        if (null == response) {
+            response = createNotFoundResponse();
+        }
+
+        Map<String, String> headers = new HashMap<>();
+
+        if (null != response.getResponseHeaders()) {
+            headers.putAll(response.getResponseHeaders());
+        }
+
+        String origin = request.getRequestHeaders().get("Origin");
+
+        if (null != allowedOrigin && allowedOrigin.equalsIgnoreCase(origin)) {
+            headers.put("Access-Control-Allow-Origin", origin);
+        }
+
+        headers.put("Vary", "Origin");
+        response.setResponseHeaders(headers);
+
+        return response;
+    }
+
+    @Nullable
+    private static String getOrigin(@NonNull Uri url) {
+        if (null == url.getScheme() || null == url.getHost()) {
+            return null;
+        }
+
+        return url.getScheme() + "://" + url.getHost() + (-1 != url.getPort() ? ":" + url.getPort() : "");
+    }
+
+    private synchronized WebViewAssetLoader getLoader() {
+        if (null == loader) {
+            WebViewAssetLoader.Builder builder = new WebViewAssetLoader.Builder().setDomain(DOMAIN);
+
+            for (Map.Entry<String, WebViewAssetLoader.PathHandler> entry : handlers.entrySet()) {
+                builder.addPathHandler(entry.getKey(), entry.getValue());
+            }
+
+            loader = builder.build();
+        }
+
+        return loader;
+    }
+}
@@ -0,0 +1,146 @@
+package com.sample;
+
+import android.content.Context;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.net.NetworkRequest;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.sample.helpers.Utils;
+
+import java.util.Random;
+
+public class ReconnectScheduler {
+    private static final String TAG = "ReconnectScheduler";
+    private static final int MAX_BACKOFF_SHIFT = 16;
+
+    private final ConnectivityManager connectivityManager;
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final Random random = new Random();
+    private final Runnable probeRunnable = this::probe;
+    private final String url;
+    private final long baseDelay;
+    private final long maxDelay;
+    private final Runnable onConnected;
+    private final Runnable onFailed;
+
+    private final ConnectivityManager.NetworkCallback networkCallback = new ConnectivityManager.NetworkCallback() {
+        @Override
+        public void onAvailable(@NonNull Network network) {
+            handler.post(() -> {
+                if (running && !probing) {
+                    Log.i(TAG, "Network is available, probing " + url);
+                    attempt = 0;
+                    handler.removeCallbacks(probeRunnable);
+                    probe();
+                }
+            });
+        }
+    };
+
+    private boolean running = false;
+    private boolean callbackRegistered = false;
+    private boolean probing = false;
+    private int attempt = 0;
+    private int generation = 0;
+
+    public ReconnectScheduler(@NonNull Context context, @NonNull String url, long baseDelay, long maxDelay, @NonNull Runnable onConnected, @NonNull Runnable onFailed) {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.url = url;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.onConnected = onConnected;
+        this.onFailed = onFailed;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        attempt = 0;
+        registerNetworkCallback();
+        probe();
+    }
+
+    public void stop() {
+        running = false;
+        probing = false;
+        generation++;
+        handler.removeCallbacks(probeRunnable);
+        unregisterNetworkCallback();
+    }
+
+    private void probe() {
+        final int probeGeneration = ++generation;
+
+        probing = true;
+
+        Utils.ping(
+            url,
+            () -> handler.post(() -> {
+                if (running && probeGeneration == generation) {
+                    stop();
+                    onConnected.run();
+                }
+            }),
+            () -> handler.post(() -> {
+                if (running && probeGeneration == generation) {
+                    probing = false;
+                    onFailed.run();
+                    schedule();
+                }
+            })
+        );
+    }
+
+    private void schedule() {
+        long delay = Math.min(maxDelay, baseDelay << Math.min(attempt++, MAX_BACKOFF_SHIFT));
+        delay = delay / 2 + (long) (random.nextDouble() * delay / 2);
+
+        Log.i(TAG, "Next probe of " + url + " in " + delay + "ms");
+
+        handler.postDelayed(probeRunnable, delay);
+    }
+
+    private void registerNetworkCallback() {
+        if (null == connectivityManager || callbackRegistered) {
+            return;
+        }
+
+        try {
+            NetworkRequest request = new NetworkRequest.Builder()
+                .addCapability(NetworkCapabilities.NET_CAPABILITY_INTERNET)
+                .build();
+
+            connectivityManager.registerNetworkCallback(request, networkCallback);
+            callbackRegistered = true;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot register network callback: " + e);
+        }
+    }
+
+    private void unregisterNetworkCallback() {
+        if (null == connectivityManager || !callbackRegistered) {
+            return;
+        }
+
+        try {
+            connectivityManager.unregisterNetworkCallback(networkCallback);
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot unregister network callback: " + e);
+        }
+
+        callbackRegistered = false;
+    }
+}
@@ -0,0 +1,148 @@
+package com.sample;
+
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class StartupPipeline {
+    private static final String TAG = "StartupPipeline";
+    private static final int THREADS = 2;
+
+    private final long startTime = SystemClock.uptimeMillis();
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final Map<String, Phase> phases = new HashMap<>();
+    private final Map<String, String> timings = new LinkedHashMap<>();
+    private int running = 0;
+    private boolean shutdown = false;
+    private boolean reported = false;
+
+    private static final class Phase {
+        final String name;
+        final Runnable task;
+        final List<Phase> dependents = new ArrayList<>();
+        int pending = 0;
+        boolean done = false;
+
+        Phase(@NonNull String name, @NonNull Runnable task) {
+            this.name = name;
+            this.task = task;
+        }
+    }
+
+    public synchronized StartupPipeline background(@NonNull String name, @NonNull Runnable task, @NonNull String... dependencies) {
+        final Phase phase = new Phase(name, task);
+
+        for (String dependency : dependencies) {
+            Phase parent = phases.get(dependency);
+
+            if (null == parent) {
+                throw new IllegalArgumentException("Startup phase " + name + " depends on unknown phase " + dependency);
+            }
+
+            if (!parent.done) {
+                parent.dependents.add(phase);
+                phase.pending++;
+            }
+        }
+
+        phases.put(name, phase);
+        running++;
+
+        if (0 == phase.pending) {
+            submit(phase);
+        }
+
+        return this;
+    }
+
+    public StartupPipeline run(@NonNull String name, @NonNull Runnable task) {
+        measure(name, task);
+
+        return this;
+    }
+
+    public void mark(@NonNull String name) {
+        record(name, "@" + (SystemClock.uptimeMillis() - startTime));
+    }
+
+    public synchronized void report() {
+        if (reported) {
+            return;
+        }
+
+        reported = true;
+        shutdown();
+
+        StringBuilder builder = new StringBuilder("Startup");
+
+        for (Map.Entry<String, String> timing : timings.entrySet()) {
+            builder.append(", ").append(timing.getKey()).append(": ").append(timing.getValue());
+        }
+
+        Log.i(TAG, builder.toString());
+    }
+
+    public synchronized void shutdown() {
+        shutdown = true;
+
+        if (0 == running) {
+            executor.shutdown();
+        }
+    }
+
+    private void submit(@NonNull Phase phase) {
+        executor.execute(() -> {
+            measure(phase.name, phase.task);
+            complete(phase);
+        });
+    }
+
+    private synchronized void complete(@NonNull Phase phase) {
+        phase.done = true;
+        running--;
+
+        for (Phase dependent : phase.dependents) {
+            if (0 == --dependent.pending) {
+                submit(dependent);
+            }
+        }
+
+        phase.dependents.clear();
+
+        if (shutdown && 0 == running) {
+            executor.shutdown();
+        }
+    }
+
+    private void measure(@NonNull String name, @NonNull Runnable task) {
+        long begin = SystemClock.uptimeMillis();
+        Trace.beginSection(name);
+
+        try {
+            task.run();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Startup phase " + name + " failed", e);
+        } finally {
+            Trace.endSection();
+            record(name, SystemClock.uptimeMillis() - begin);
+        }
+    }
+
+    private void record(@NonNull String name, long duration) {
+        record(name, duration + "ms");
+    }
+
+    private synchronized void record(@NonNull String name, @NonNull String value) {
+        timings.put(name, value);
+    }
+}
@@ -10,10 +10,12 @@ import android.util.Log;
 import android.view.KeyEvent;
 import android.webkit.SslErrorHandler;
 import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
 import android.webkit.WebSettings;
 import android.webkit.WebView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.webkit.WebResourceErrorCompat;
 import androidx.webkit.WebViewClientCompat;
 import androidx.webkit.WebViewFeature;
@@ -21,15 +23,25 @@ import androidx.webkit.WebViewFeature;
 import com.sample.player.MediaClient;
 import com.sample.system.RemoteKeyEvent;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
 import de.andycandy.android.bridge.Bridge;
 import de.andycandy.android.bridge.JSInterface;
 import io.sentry.Sentry;
 
 public class WebViewController implements MediaClient {
+    public interface RequestInterceptor {
+        @Nullable
+        WebResourceResponse intercept(@NonNull WebResourceRequest request);
+    }
+
+    private final List<RequestInterceptor> interceptors = new CopyOnWriteArrayList<>();
     private final WebView webView;
     private final Bridge bridge;
     private final String portalUrl;
 
+    private long visualStateRequestId = 0;
     private Runnable onPageLoaded = null;
     private Runnable onLoadFailed = null;
     private Runnable onSslError = null;
@@ -94,6 +106,20 @@ public class WebViewController implements MediaClient {
                 }
             }
 
+            @Nullable
+            @Override
+            public WebResourceResponse shouldInterceptRequest(@NonNull WebView view, @NonNull WebResourceRequest request) {
+                for (RequestInterceptor interceptor : interceptors) {
+                    WebResourceResponse response = interceptor.intercept(request);
+
+                    if (null != response) {
+                        return response;
+                    }
+                }
+
+                return super.shouldInterceptRequest(view, request);
+            }
+
             @Override
             public void onPageFinished(WebView view, String url) {
                 super.onPageFinished(view, url);
@@ -119,7 +145,6 @@ public class WebViewController implements MediaClient {
         webView.getSettings().setAllowContentAccess(false);
         webView.getSettings().setJavaScriptEnabled(true);
 
-        webView.clearCache(true);
         webView.clearFormData();
         webView.clearHistory();
 
@@ -136,10 +161,22 @@ public class WebViewController implements MediaClient {
         webView.loadUrl(portalUrl);
     }
 
+    public void clearCache() {
+        webView.clearCache(true);
+    }
+
     public void restoreState(@NonNull Bundle bundle) {
         webView.restoreState(bundle);
     }
 
+    public void postVisualStateCallback(@NonNull WebView.VisualStateCallback callback) {
+        webView.postVisualStateCallback(++visualStateRequestId, callback);
+    }
+
+    public void addRequestInterceptor(RequestInterceptor interceptor) {
+        interceptors.add(interceptor);
+    }
+
     public void addJSInterface(JSInterface jsInterface) {
         bridge.addJSInterface(jsInterface);
     }
@@ -152,6 +189,11 @@ public class WebViewController implements MediaClient {
         webView.dispatchKeyEvent(RemoteKeyEvent.createFakeEscEvent());
     }
 
+    public void dispatchMediaKeyEvent(int keyCode) {
+        webView.dispatchKeyEvent(RemoteKeyEvent.createFakeMediaEvent(KeyEvent.ACTION_DOWN, keyCode));
+        webView.dispatchKeyEvent(RemoteKeyEvent.createFakeMediaEvent(KeyEvent.ACTION_UP, keyCode));
+    }
+
     public void onMediaButtonEvent(KeyEvent event) {
         webView.dispatchKeyEvent(event);
     }
@@ -0,0 +1,44 @@
+package com.sample.helpers;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.TimeUnit;
+
+import okhttp3.OkHttpClient;
+
+public class HttpClient {
+    private static final long CONNECT_TIMEOUT = 15;
+    private static final long READ_TIMEOUT = 30;
+
+    private static volatile OkHttpClient instance;
+
+    private HttpClient() {}
+
+    @NonNull
+    public static OkHttpClient getInstance() {
+        if (null == instance) {
+            synchronized (HttpClient.class) {
+                if (null == instance) {
+                    instance = new OkHttpClient.Builder()
+                        .connectTimeout(CONNECT_TIMEOUT, TimeUnit.SECONDS)
+                        .readTimeout(READ_TIMEOUT, TimeUnit.SECONDS)
+                        .build();
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    @NonNull
+    public static OkHttpClient.Builder newBuilder(long timeout, @NonNull TimeUnit unit) {
+        return getInstance().newBuilder()
+            .connectTimeout(timeout, unit)
+            .readTimeout(timeout, unit);
+    }
+
+    @NonNull
+    public static OkHttpClient withTimeout(long timeout, @NonNull TimeUnit unit) {
+        return newBuilder(timeout, unit).build();
+    }
+}
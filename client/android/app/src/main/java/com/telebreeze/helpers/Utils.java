@@ -12,17 +12,23 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.concurrent.TimeUnit;
 
 import okhttp3.Call;
 import okhttp3.Callback;
-import okhttp3.Interceptor;
 import okhttp3.OkHttpClient;
 import okhttp3.Request;
 import okhttp3.Response;
 
 public class Utils {
+    private static final long PING_TIMEOUT = 1;
+
+    private static volatile OkHttpClient pingClient;
+
     public static String convert(Drawable drawable) {
         try {
             return convert(drawableToBitmap(drawable));
@@ -40,6 +46,48 @@ public class Utils {
         return Base64.encodeToString(outputStream.toByteArray(), Base64.DEFAULT);
     }
 
+    public static byte[] toPng(Drawable drawable, int size) {
+        Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+        Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, size, size);
+        drawable.draw(canvas);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        bitmap.compress(Bitmap.CompressFormat.PNG, 100, outputStream);
+        bitmap.recycle();
+
+        return outputStream.toByteArray();
+    }
+
+    public static String toHex(byte[] bytes) {
+        StringBuilder builder = new StringBuilder(bytes.length * 2);
+
+        for (byte value : bytes) {
+            builder.append(Character.forDigit((value >> 4) & 0xF, 16)).append(Character.forDigit(value & 0xF, 16));
+        }
+
+        return builder.toString();
+    }
+
+    public static byte[] readBytes(File file) throws IOException {
+        try (InputStream inputStream = new FileInputStream(file)) {
+            byte[] bytes = new byte[(int) file.length()];
+            int offset = 0;
+
+            while (offset < bytes.length) {
+                int read = inputStream.read(bytes, offset, bytes.length - offset);
+
+                if (-1 == read) {
+                    throw new IOException("Unexpected end of " + file);
+                }
+
+                offset += read;
+            }
+
+            return bytes;
+        }
+    }
+
     public static Bitmap drawableToBitmap(Drawable drawable) {
         Bitmap bitmap = null;
 
@@ -69,23 +117,21 @@ public class Utils {
         return "udp".equals(scheme) || "rtp".equals(scheme);
     }
 
-    public static void ping(String url, @Nullable Runnable resolve, @Nullable Runnable reject) {
-        OkHttpClient client = new OkHttpClient.Builder()
-            .connectTimeout(1, TimeUnit.SECONDS)
-            .readTimeout(1, TimeUnit.SECONDS)
-            .addNetworkInterceptor(new Interceptor() {
-                @NonNull
-                @Override
-                public Response intercept(@NonNull Chain chain) throws IOException {
-                    Response originalResponse = chain.proceed(chain.request());
-                    return originalResponse.newBuilder()
-                        .body(originalResponse.body())
-                        .build();
+    @NonNull
+    private static OkHttpClient getPingClient() {
+        if (null == pingClient) {
+            synchronized (Utils.class) {
+                if (null == pingClient) {
+                    pingClient = HttpClient.withTimeout(PING_TIMEOUT, TimeUnit.SECONDS);
                 }
-            })
-            .build();
+            }
+        }
+
+        return pingClient;
+    }
 
-        final Call pingCall = client.newCall(new Request.Builder().url(url).build());
+    public static void ping(String url, @Nullable Runnable resolve, @Nullable Runnable reject) {
+        final Call pingCall = getPingClient().newCall(new Request.Builder().url(url).build());
         pingCall.enqueue(new Callback() {
             @Override
             public void onFailure(@NonNull Call call, @NonNull IOException exception) {
@@ -97,9 +143,14 @@ public class Utils {
 
             @Override
             public void onResponse(@NonNull Call call, @NonNull Response response) {
+                response.close();
+
                 if (null != resolve && response.isSuccessful()) {
                     Log.i("OK_HTTP", "Ping of " + url + " is ok.");
                     resolve.run();
+                } else if (null != reject && !response.isSuccessful()) {
+                    Log.i("OK_HTTP", "Ping of " + url + " is failed with " + response.code() + ".");
+                    reject.run();
                 }
             }
         });
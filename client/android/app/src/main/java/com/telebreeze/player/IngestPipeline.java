@@ -0,0 +1,118 @@
+package com.sample.player;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+
+final class IngestPipeline {
+    private static final int RTP_HEADER_SIZE = 12;
+    private static final int RTP_VERSION = 2;
+    private static final byte TS_SYNC_BYTE = 0x47;
+    private static final long NANOS_PER_RTP_TICK = 1_000_000_000L / 90_000;
+
+    private final IngestStats stats;
+    private final PacketPool pool;
+    private final JitterBuffer jitterBuffer;
+    private final TsInputStream inputStream;
+
+    IngestPipeline(int poolSize, int packetSize, int jitterCapacity, long jitterLatency, int streamCapacity, IngestStats stats) {
+        this.stats = stats;
+        this.pool = new PacketPool(poolSize, packetSize);
+        this.jitterBuffer = new JitterBuffer(jitterCapacity, jitterLatency, pool, stats);
+        this.inputStream = new TsInputStream(streamCapacity, stats);
+    }
+
+    @NonNull
+    TsInputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Nullable
+    Packet acquire() {
+        Packet packet = pool.acquire();
+
+        if (null == packet) {
+            stats.overruns.incrementAndGet();
+            drain(true);
+        }
+
+        return packet;
+    }
+
+    void release(@NonNull Packet packet) {
+        pool.release(packet);
+    }
+
+    void process(@NonNull Packet packet) {
+        packet.arrival = System.nanoTime();
+        packet.buffer.flip();
+        stats.packets.incrementAndGet();
+        stats.bytes.addAndGet(packet.buffer.remaining());
+
+        if (!parseRtp(packet)) {
+            drain(true);
+            jitterBuffer.clear();
+            inputStream.write(packet.buffer);
+            pool.release(packet);
+            return;
+        }
+
+        stats.updateJitter(packet.arrival / NANOS_PER_RTP_TICK, packet.timestamp);
+
+        if (jitterBuffer.isDiscontinuity(packet)) {
+            drain(true);
+        }
+
+        if (!jitterBuffer.push(packet)) {
+            pool.release(packet);
+        }
+
+        drain(false);
+    }
+
+    void drain(boolean force) {
+        Packet packet;
+
+        while (null != (packet = jitterBuffer.poll(force ? Long.MAX_VALUE : System.nanoTime()))) {
+            inputStream.write(packet.buffer);
+            pool.release(packet);
+        }
+    }
+
+    void clear() {
+        jitterBuffer.clear();
+    }
+
+    private static boolean parseRtp(@NonNull Packet packet) {
+        final ByteBuffer buffer = packet.buffer;
+        final int length = buffer.limit();
+
+        if (length < RTP_HEADER_SIZE || TS_SYNC_BYTE == buffer.get(0) || RTP_VERSION != (buffer.get(0) & 0xFF) >> 6) {
+            return false;
+        }
+
+        final int flags = buffer.get(0) & 0xFF;
+        int offset = RTP_HEADER_SIZE + 4 * (flags & 0x0F);
+        int end = length;
+
+        if (0 != (flags & 0x10) && offset + 4 <= length) {
+            offset += 4 + 4 * (buffer.getShort(offset + 2) & 0xFFFF);
+        }
+
+        if (0 != (flags & 0x20)) {
+            end -= buffer.get(length - 1) & 0xFF;
+        }
+
+        if (offset > end) {
+            return false;
+        }
+
+        packet.sequence = buffer.getShort(2) & 0xFFFF;
+        packet.timestamp = buffer.getInt(4) & 0xFFFFFFFFL;
+        buffer.limit(end);
+        buffer.position(offset);
+
+        return true;
+    }
+}
@@ -0,0 +1,77 @@
+package com.sample.player;
+
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class IngestStats {
+    final AtomicLong packets = new AtomicLong();
+    final AtomicLong bytes = new AtomicLong();
+    final AtomicLong duplicates = new AtomicLong();
+    final AtomicLong reordered = new AtomicLong();
+    final AtomicLong lost = new AtomicLong();
+    final AtomicLong late = new AtomicLong();
+    final AtomicLong overruns = new AtomicLong();
+    final AtomicLong overflows = new AtomicLong();
+
+    private volatile double jitter = 0;
+    private long lastTransit = Long.MIN_VALUE;
+
+    void updateJitter(long arrival, long timestamp) {
+        long transit = arrival - timestamp;
+
+        if (Long.MIN_VALUE != lastTransit) {
+            jitter += (Math.abs(transit - lastTransit) - jitter) / 16;
+        }
+
+        lastTransit = transit;
+    }
+
+    public long getPackets() {
+        return packets.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    public long getDuplicates() {
+        return duplicates.get();
+    }
+
+    public long getReordered() {
+        return reordered.get();
+    }
+
+    public long getLost() {
+        return lost.get();
+    }
+
+    public long getLate() {
+        return late.get();
+    }
+
+    public long getOverruns() {
+        return overruns.get();
+    }
+
+    public long getOverflows() {
+        return overflows.get();
+    }
+
+    public double getJitterMillis() {
+        return jitter / 90;
+    }
+
+    @Override
+    public String toString() {
+        return "packets: " + getPackets()
+            + ", bytes: " + getBytes()
+            + ", lost: " + getLost()
+            + ", duplicates: " + getDuplicates()
+            + ", reordered: " + getReordered()
+            + ", late: " + getLate()
+            + ", overruns: " + getOverruns()
+            + ", overflows: " + getOverflows()
+            + ", jitter: " + String.format(Locale.US, "%.2fms", getJitterMillis());
+    }
+}
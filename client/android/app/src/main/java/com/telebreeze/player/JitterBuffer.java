@@ -0,0 +1,125 @@
+package com.sample.player;
+
+import androidx.annotation.Nullable;
+
+final class JitterBuffer {
+    private final Packet[] slots;
+    private final int mask;
+    private final long latency;
+    private final PacketPool pool;
+    private final IngestStats stats;
+    private int next = -1;
+    private int highest = -1;
+    private int count = 0;
+
+    JitterBuffer(int capacity, long latencyNanos, PacketPool pool, IngestStats stats) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+
+        this.slots = new Packet[size];
+        this.mask = size - 1;
+        this.latency = latencyNanos;
+        this.pool = pool;
+        this.stats = stats;
+    }
+
+    boolean push(Packet packet) {
+        if (next < 0) {
+            next = packet.sequence;
+            highest = packet.sequence;
+        }
+
+        if (isDiscontinuity(packet)) {
+            stats.lost.addAndGet(Math.max(0, distance(packet.sequence, next) - count));
+            clear();
+            next = packet.sequence;
+            highest = packet.sequence;
+        }
+
+        if (distance(packet.sequence, next) < 0) {
+            stats.late.incrementAndGet();
+            return false;
+        }
+
+        int index = packet.sequence & mask;
+
+        if (null != slots[index]) {
+            stats.duplicates.incrementAndGet();
+            return false;
+        }
+
+        if (distance(packet.sequence, highest) < 0) {
+            stats.reordered.incrementAndGet();
+        } else {
+            highest = packet.sequence;
+        }
+
+        slots[index] = packet;
+        count++;
+
+        return true;
+    }
+
+    boolean isDiscontinuity(Packet packet) {
+        if (next < 0) {
+            return false;
+        }
+
+        int offset = distance(packet.sequence, next);
+
+        return offset <= -slots.length || offset >= slots.length;
+    }
+
+    @Nullable
+    Packet poll(long now) {
+        while (count > 0) {
+            int index = next & mask;
+            Packet packet = slots[index];
+
+            if (null != packet) {
+                slots[index] = null;
+                count--;
+                next = (next + 1) & 0xFFFF;
+
+                return packet;
+            }
+
+            if (count < slots.length / 2 && now - getFirstArrival() < latency) {
+                return null;
+            }
+
+            stats.lost.incrementAndGet();
+            next = (next + 1) & 0xFFFF;
+        }
+
+        return null;
+    }
+
+    void clear() {
+        for (int i = 0; i < slots.length; i++) {
+            if (null != slots[i]) {
+                pool.release(slots[i]);
+                slots[i] = null;
+            }
+        }
+
+        count = 0;
+        next = -1;
+        highest = -1;
+    }
+
+    private long getFirstArrival() {
+        for (int i = 1; i < slots.length; i++) {
+            Packet packet = slots[(next + i) & mask];
+
+            if (null != packet) {
+                return packet.arrival;
+            }
+        }
+
+        return Long.MAX_VALUE;
+    }
+
+    private static int distance(int sequence, int base) {
+        return (short) (sequence - base);
+    }
+}
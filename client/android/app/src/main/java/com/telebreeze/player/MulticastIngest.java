@@ -0,0 +1,212 @@
+package com.sample.player;
+
+import android.content.Context;
+import android.net.Uri;
+import android.net.wifi.WifiManager;
+import android.os.Build;
+import android.os.Process;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.DatagramSocket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.StandardProtocolFamily;
+import java.net.StandardSocketOptions;
+import java.nio.channels.DatagramChannel;
+import java.nio.channels.MembershipKey;
+import java.util.Collections;
+
+public class MulticastIngest implements Closeable {
+    private static final String TAG = "MulticastIngest";
+    private static final int PACKET_SIZE = 2048;
+    private static final int POOL_SIZE = 512;
+    private static final int JITTER_CAPACITY = 256;
+    private static final long JITTER_LATENCY = 80_000_000L;
+    private static final int STREAM_CAPACITY = 4 * 1024 * 1024;
+    private static final int RECEIVE_BUFFER_SIZE = 2 * 1024 * 1024;
+
+    private final Context context;
+    private final InetAddress group;
+    private final int port;
+    private final IngestStats stats = new IngestStats();
+    private final IngestPipeline pipeline = new IngestPipeline(POOL_SIZE, PACKET_SIZE, JITTER_CAPACITY, JITTER_LATENCY, STREAM_CAPACITY, stats);
+    private DatagramChannel channel;
+    private MembershipKey membership;
+    private MulticastSocket socket;
+    private WifiManager.MulticastLock multicastLock;
+    private Thread thread;
+    private volatile boolean running = false;
+
+    public MulticastIngest(@NonNull Context context, @NonNull Uri uri) throws IOException {
+        String host = uri.getHost();
+
+        if (null == host || -1 == uri.getPort()) {
+            throw new IOException("Invalid multicast address " + uri);
+        }
+
+        this.context = context.getApplicationContext();
+        this.group = InetAddress.getByName(host);
+        this.port = uri.getPort();
+
+        if (!group.isMulticastAddress()) {
+            throw new IOException(host + " is not a multicast address");
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        if (running) {
+            return;
+        }
+
+        acquireMulticastLock();
+
+        try {
+            if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.N) {
+                channel = DatagramChannel.open(StandardProtocolFamily.INET)
+                    .setOption(StandardSocketOptions.SO_REUSEADDR, true)
+                    .setOption(StandardSocketOptions.SO_RCVBUF, RECEIVE_BUFFER_SIZE)
+                    .bind(new InetSocketAddress(group, port));
+                membership = channel.join(group, getNetworkInterface());
+            } else {
+                socket = new MulticastSocket(new InetSocketAddress(group, port));
+                socket.setReceiveBufferSize(RECEIVE_BUFFER_SIZE);
+                socket.joinGroup(new InetSocketAddress(group, port), getNetworkInterface());
+            }
+        } catch (IOException e) {
+            release();
+            throw e;
+        }
+
+        running = true;
+        thread = new Thread(this::receive, TAG + " " + group.getHostAddress() + ":" + port);
+        thread.start();
+    }
+
+    @NonNull
+    public TsInputStream getInputStream() {
+        return pipeline.getInputStream();
+    }
+
+    @NonNull
+    public IngestStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public synchronized void close() {
+        running = false;
+        pipeline.getInputStream().close();
+        release();
+
+        if (null != thread) {
+            thread.interrupt();
+            thread = null;
+        }
+
+        Log.i(TAG, "Closed " + group.getHostAddress() + ":" + port + ", " + stats);
+    }
+
+    private void receive() {
+        Process.setThreadPriority(Process.THREAD_PRIORITY_URGENT_AUDIO);
+
+        final DatagramChannel channel = this.channel;
+        final MulticastSocket socket = this.socket;
+        final byte[] fallbackBuffer = null != socket ? new byte[PACKET_SIZE] : null;
+        final DatagramPacket datagram = null != socket ? new DatagramPacket(fallbackBuffer, PACKET_SIZE) : null;
+
+        while (running) {
+            Packet packet = pipeline.acquire();
+
+            if (null == packet) {
+                continue;
+            }
+
+            try {
+                if (null != datagram) {
+                    socket.receive(datagram);
+                    packet.buffer.put(fallbackBuffer, 0, datagram.getLength());
+                } else {
+                    channel.receive(packet.buffer);
+                }
+            } catch (IOException e) {
+                pipeline.release(packet);
+
+                if (running) {
+                    Log.w(TAG, "Receive failed: " + e);
+                }
+
+                break;
+            }
+
+            pipeline.process(packet);
+        }
+
+        pipeline.clear();
+    }
+
+    @NonNull
+    private NetworkInterface getNetworkInterface() throws IOException {
+        try (DatagramSocket probe = new DatagramSocket()) {
+            probe.connect(group, port);
+            NetworkInterface routed = NetworkInterface.getByInetAddress(probe.getLocalAddress());
+
+            if (null != routed && routed.supportsMulticast()) {
+                return routed;
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "No route to " + group.getHostAddress() + ": " + e);
+        }
+
+        for (NetworkInterface networkInterface : Collections.list(NetworkInterface.getNetworkInterfaces())) {
+            if (networkInterface.isUp() && !networkInterface.isLoopback() && networkInterface.supportsMulticast()) {
+                return networkInterface;
+            }
+        }
+
+        throw new IOException("No multicast network interface for " + group.getHostAddress());
+    }
+
+    private void acquireMulticastLock() {
+        WifiManager wifiManager = (WifiManager) context.getSystemService(Context.WIFI_SERVICE);
+
+        if (null != wifiManager) {
+            multicastLock = wifiManager.createMulticastLock(TAG);
+            multicastLock.setReferenceCounted(false);
+            multicastLock.acquire();
+        }
+    }
+
+    private void release() {
+        if (null != membership) {
+            membership.drop();
+            membership = null;
+        }
+
+        if (null != channel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                Log.w(TAG, "Cannot close channel: " + e);
+            }
+
+            channel = null;
+        }
+
+        if (null != socket) {
+            socket.close();
+            socket = null;
+        }
+
+        if (null != multicastLock) {
+            multicastLock.release();
+            multicastLock = null;
+        }
+    }
+}
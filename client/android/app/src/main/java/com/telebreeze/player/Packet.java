@@ -0,0 +1,21 @@
+package com.sample.player;
+
+import java.nio.ByteBuffer;
+
+final class Packet {
+    final ByteBuffer buffer;
+    int sequence = -1;
+    long timestamp;
+    long arrival;
+
+    Packet(int size) {
+        buffer = ByteBuffer.allocateDirect(size);
+    }
+
+    void reset() {
+        buffer.clear();
+        sequence = -1;
+        timestamp = 0;
+        arrival = 0;
+    }
+}
@@ -0,0 +1,32 @@
+package com.sample.player;
+
+import androidx.annotation.Nullable;
+
+import java.util.concurrent.ArrayBlockingQueue;
+
+final class PacketPool {
+    private final ArrayBlockingQueue<Packet> free;
+
+    PacketPool(int capacity, int packetSize) {
+        free = new ArrayBlockingQueue<>(capacity);
+
+        for (int i = 0; i < capacity; i++) {
+            free.offer(new Packet(packetSize));
+        }
+    }
+
+    @Nullable
+    Packet acquire() {
+        Packet packet = free.poll();
+
+        if (null != packet) {
+            packet.reset();
+        }
+
+        return packet;
+    }
+
+    void release(Packet packet) {
+        free.offer(packet);
+    }
+}
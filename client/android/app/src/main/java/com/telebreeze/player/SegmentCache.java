@@ -0,0 +1,374 @@
+package com.sample.player;
+
+import android.content.Context;
+import android.util.Log;
+import android.webkit.CookieManager;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.helpers.HttpClient;
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import okhttp3.Call;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+
+public class SegmentCache {
+    private static final String TAG = "SegmentCache";
+    private static final String CACHE_DIR = "segments";
+    private static final long MAX_SIZE = 256L * 1024 * 1024;
+    private static final int USABLE_SPACE_DIVIDER = 4;
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static volatile SegmentCache instance;
+
+    private final File directory;
+    private final long maxSize;
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<String, Object> locks = new ConcurrentHashMap<>();
+    private long size = 0;
+
+    private SegmentCache(@NonNull File directory, long maxSize) {
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    @NonNull
+    public static SegmentCache getInstance(@NonNull Context context) {
+        if (null == instance) {
+            synchronized (SegmentCache.class) {
+                if (null == instance) {
+                    File directory = new File(context.getCacheDir(), CACHE_DIR);
+                    directory.mkdirs();
+
+                    instance = new SegmentCache(directory, Math.min(MAX_SIZE, directory.getUsableSpace() / USABLE_SPACE_DIVIDER));
+                    instance.load();
+                }
+            }
+        }
+
+        return instance;
+    }
+
+    @Nullable
+    public synchronized InputStream open(@NonNull String url) {
+        File file = get(getKey(url));
+
+        if (null == file) {
+            return null;
+        }
+
+        try {
+            return new FileInputStream(file);
+        } catch (FileNotFoundException e) {
+            remove(getKey(url));
+            return null;
+        }
+    }
+
+    @Nullable
+    public InputStream await(@NonNull String url) {
+        final Object lock = locks.get(getKey(url));
+
+        if (null != lock) {
+            synchronized (lock) {
+                Log.v(TAG, "Awaited prefetch of " + url);
+            }
+        }
+
+        return open(url);
+    }
+
+    public synchronized boolean contains(@NonNull String url) {
+        return entries.containsKey(getKey(url));
+    }
+
+    public boolean fetch(@NonNull String url, @Nullable Map<String, String> headers) {
+        if (contains(url)) {
+            return true;
+        }
+
+        final String key = getKey(url);
+        final Object lock = new Object();
+
+        synchronized (lock) {
+            final Object current = locks.putIfAbsent(key, lock);
+
+            if (null != current) {
+                synchronized (current) {
+                    return contains(url);
+                }
+            }
+
+            try {
+                return contains(url) || download(url, key, headers);
+            } finally {
+                locks.remove(key, lock);
+            }
+        }
+    }
+
+    @NonNull
+    public InputStream cache(@NonNull String url, @NonNull Response response) {
+        final InputStream source = response.body().byteStream();
+
+        try {
+            return new CachingInputStream(getKey(url), source);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot cache " + url + ": " + e);
+            return source;
+        }
+    }
+
+    public synchronized void clear() {
+        for (String key : entries.keySet()) {
+            new File(directory, key).delete();
+        }
+
+        entries.clear();
+        size = 0;
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    @NonNull
+    public static Call newCall(@NonNull String url, @Nullable Map<String, String> headers) {
+        final Request.Builder builder = new Request.Builder().url(url);
+
+        if (null != headers) {
+            for (Map.Entry<String, String> header : headers.entrySet()) {
+                if (!isSkippedHeader(header.getKey())) {
+                    builder.header(header.getKey(), header.getValue());
+                }
+            }
+        }
+
+        final String cookie = CookieManager.getInstance().getCookie(url);
+
+        if (null != cookie) {
+            builder.header("Cookie", cookie);
+        }
+
+        return HttpClient.getInstance().newCall(builder.build());
+    }
+
+    public static boolean isCacheable(@NonNull Response response) {
+        return 200 == response.code() && !response.header("Cache-Control", "").contains("no-store");
+    }
+
+    private boolean download(@NonNull String url, @NonNull String key, @Nullable Map<String, String> headers) {
+        File temp = null;
+
+        try (Response response = newCall(url, headers).execute()) {
+            if (!isCacheable(response)) {
+                return false;
+            }
+
+            temp = File.createTempFile(key + ".", TEMP_SUFFIX, directory);
+
+            try (BufferedSink sink = Okio.buffer(Okio.sink(temp))) {
+                sink.writeAll(response.body().source());
+            }
+        } catch (IOException e) {
+            if (null != temp) {
+                temp.delete();
+            }
+
+            Log.w(TAG, "Cannot fetch " + url + ": " + e);
+            return false;
+        }
+
+        return commit(key, temp);
+    }
+
+    private synchronized boolean commit(@NonNull String key, @NonNull File temp) {
+        final File file = new File(directory, key);
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            return false;
+        }
+
+        Long previous = entries.put(key, file.length());
+        size += file.length() - (null != previous ? previous : 0);
+        trim();
+
+        return true;
+    }
+
+    @Nullable
+    private File get(@NonNull String key) {
+        if (null == entries.get(key)) {
+            return null;
+        }
+
+        File file = new File(directory, key);
+        file.setLastModified(System.currentTimeMillis());
+
+        return file;
+    }
+
+    private void remove(@NonNull String key) {
+        Long length = entries.remove(key);
+
+        if (null != length) {
+            size -= length;
+        }
+    }
+
+    private synchronized void load() {
+        File[] files = directory.listFiles();
+
+        if (null == files) {
+            return;
+        }
+
+        Arrays.sort(files, (left, right) -> Long.compare(left.lastModified(), right.lastModified()));
+
+        for (File file : files) {
+            if (file.getName().endsWith(TEMP_SUFFIX)) {
+                file.delete();
+            } else {
+                entries.put(file.getName(), file.length());
+                size += file.length();
+            }
+        }
+
+        trim();
+        Log.i(TAG, "Loaded " + entries.size() + " segments, " + size + " of " + maxSize + " bytes");
+    }
+
+    private void trim() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+
+        while (size > maxSize && iterator.hasNext()) {
+            Map.Entry<String, Long> entry = iterator.next();
+
+            new File(directory, entry.getKey()).delete();
+            size -= entry.getValue();
+            iterator.remove();
+        }
+    }
+
+    @NonNull
+    private static String getKey(@NonNull String url) {
+        try {
+            return Utils.toHex(MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(url.hashCode());
+        }
+    }
+
+    private static boolean isSkippedHeader(@NonNull String name) {
+        return "Range".equalsIgnoreCase(name)
+            || "Accept-Encoding".equalsIgnoreCase(name)
+            || "If-None-Match".equalsIgnoreCase(name)
+            || "If-Modified-Since".equalsIgnoreCase(name);
+    }
+
+    private final class CachingInputStream extends FilterInputStream {
+        private final String key;
+        private final File temp;
+        private OutputStream sink;
+
+        CachingInputStream(@NonNull String key, @NonNull InputStream source) throws IOException {
+            super(source);
+            this.key = key;
+            this.temp = File.createTempFile(key + ".", TEMP_SUFFIX, directory);
+            this.sink = new FileOutputStream(temp);
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+
+            return -1 == read(single, 0, 1) ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(@NonNull byte[] buffer, int offset, int length) throws IOException {
+            final int count;
+
+            try {
+                count = super.read(buffer, offset, length);
+            } catch (IOException e) {
+                discard();
+                throw e;
+            }
+
+            if (null == sink) {
+                return count;
+            }
+
+            try {
+                if (-1 == count) {
+                    sink.close();
+                    sink = null;
+                    commit(key, temp);
+                } else {
+                    sink.write(buffer, offset, count);
+                }
+            } catch (IOException e) {
+                Log.w(TAG, "Cannot cache " + key + ": " + e);
+                discard();
+            }
+
+            return count;
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            discard();
+            return super.skip(count);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            discard();
+            super.close();
+        }
+
+        private void discard() {
+            if (null != sink) {
+                try {
+                    sink.close();
+                } catch (IOException ignored) {
+                }
+
+                sink = null;
+                temp.delete();
+            }
+        }
+    }
+}
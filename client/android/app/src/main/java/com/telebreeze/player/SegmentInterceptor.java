@@ -0,0 +1,188 @@
+package com.sample.player;
+
+import android.content.Context;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.WebViewController;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import okhttp3.MediaType;
+import okhttp3.Response;
+
+public class SegmentInterceptor implements WebViewController.RequestInterceptor {
+    private static final String TAG = "SegmentInterceptor";
+    private static final String PLAYLIST_EXTENSION = ".m3u8";
+    private static final String PLAYLIST_TYPE = "application/vnd.apple.mpegurl";
+    private static final String SEGMENT_DEFAULT_TYPE = "application/octet-stream";
+
+    private static final String[][] SEGMENT_TYPES = {
+        {".ts", "video/mp2t"},
+        {".m4s", "video/iso.segment"},
+        {".mp4", "video/mp4"},
+        {".m4v", "video/mp4"},
+        {".m4a", "audio/mp4"},
+        {".aac", "audio/aac"},
+    };
+
+    private final Context context;
+    private SegmentPrefetcher prefetcher;
+
+    public SegmentInterceptor(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+    }
+
+    @NonNull
+    public synchronized SegmentPrefetcher getPrefetcher() {
+        if (null == prefetcher) {
+            prefetcher = new SegmentPrefetcher(SegmentCache.getInstance(context));
+        }
+
+        return prefetcher;
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(@NonNull WebResourceRequest request) {
+        final Uri url = request.getUrl();
+        final String path = url.getPath();
+
+        if (!"GET".equals(request.getMethod())
+            || null == path
+            || !("http".equals(url.getScheme()) || "https".equals(url.getScheme()))
+            || request.getRequestHeaders().containsKey("Range")) {
+            return null;
+        }
+
+        final String lowerPath = path.toLowerCase();
+
+        if (lowerPath.endsWith(PLAYLIST_EXTENSION)) {
+            return interceptPlaylist(url.toString(), request.getRequestHeaders());
+        }
+
+        if (!getPrefetcher().isKnownSegment(url.toString())) {
+            return null;
+        }
+
+        for (String[] segmentType : SEGMENT_TYPES) {
+            if (lowerPath.endsWith(segmentType[0])) {
+                return interceptSegment(url.toString(), segmentType[1], request.getRequestHeaders());
+            }
+        }
+
+        return interceptSegment(url.toString(), SEGMENT_DEFAULT_TYPE, request.getRequestHeaders());
+    }
+
+    @Nullable
+    private WebResourceResponse interceptPlaylist(@NonNull String url, @NonNull Map<String, String> headers) {
+        Response response = null;
+
+        try {
+            response = SegmentCache.newCall(url, headers).execute();
+
+            if (200 != response.code()) {
+                return createResponse(response, headers);
+            }
+
+            final String body = response.body().string();
+            getPrefetcher().onPlaylist(response.request().url().toString(), body);
+
+            return createResponse(PLAYLIST_TYPE, "utf-8", headers, new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (IOException | IllegalArgumentException e) {
+            if (null != response) {
+                response.close();
+            }
+
+            Log.w(TAG, "Cannot fetch playlist " + url + ": " + e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private WebResourceResponse interceptSegment(@NonNull String url, @NonNull String mimeType, @NonNull Map<String, String> headers) {
+        final SegmentPrefetcher prefetcher = getPrefetcher();
+        final SegmentCache cache = SegmentCache.getInstance(context);
+
+        prefetcher.onSegmentRequested(url, headers);
+
+        final InputStream cached = cache.await(url);
+
+        if (null != cached) {
+            return createResponse(mimeType, null, headers, cached);
+        }
+
+        Response response = null;
+
+        try {
+            response = SegmentCache.newCall(url, headers).execute();
+
+            if (!SegmentCache.isCacheable(response)) {
+                return createResponse(response, headers);
+            }
+
+            return createResponse(mimeType, null, headers, cache.cache(url, response));
+        } catch (IOException | IllegalArgumentException e) {
+            if (null != response) {
+                response.close();
+            }
+
+            Log.w(TAG, "Cannot fetch segment " + url + ": " + e);
+            return null;
+        }
+    }
+
+    @NonNull
+    private static WebResourceResponse createResponse(@NonNull Response response, @NonNull Map<String, String> requestHeaders) {
+        final MediaType contentType = response.body().contentType();
+        final Charset charset = null != contentType ? contentType.charset() : null;
+        final String reason = response.message().isEmpty() ? "Status " + response.code() : response.message();
+        final WebResourceResponse resourceResponse = createResponse(
+            null != contentType ? contentType.type() + "/" + contentType.subtype() : SEGMENT_DEFAULT_TYPE,
+            null != charset ? charset.name() : null,
+            requestHeaders,
+            response.body().byteStream()
+        );
+        final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+        headers.putAll(resourceResponse.getResponseHeaders());
+
+        for (String name : response.headers().names()) {
+            if (!headers.containsKey(name)) {
+                headers.put(name, response.header(name));
+            }
+        }
+
+        resourceResponse.setStatusCodeAndReasonPhrase(response.code(), reason);
+        resourceResponse.setResponseHeaders(headers);
+
+        return resourceResponse;
+    }
+
+    @NonNull
+    private static WebResourceResponse createResponse(@NonNull String mimeType, @Nullable String encoding, @NonNull Map<String, String> requestHeaders, @NonNull InputStream body) {
+        final Map<String, String> headers = new HashMap<>();
+        final String origin = requestHeaders.get("Origin");
+
+        headers.put("Access-Control-Allow-Origin", null != origin ? origin : "*");
+
+        if (null != origin) {
+            headers.put("Access-Control-Allow-Credentials", "true");
+            headers.put("Vary", "Origin");
+        }
+
+        return new WebResourceResponse(mimeType, encoding, 200, "OK", headers, body);
+    }
+}
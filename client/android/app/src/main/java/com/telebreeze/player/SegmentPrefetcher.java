@@ -0,0 +1,119 @@
+package com.sample.player;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.HttpUrl;
+
+public class SegmentPrefetcher {
+    private static final String TAG = "SegmentPrefetcher";
+    private static final int DEFAULT_AHEAD = 3;
+    private static final int MAX_PLAYLISTS = 8;
+    private static final int THREADS = 2;
+
+    private final SegmentCache cache;
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+    private final Set<String> pending = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    private final LinkedHashMap<String, List<String>> playlists = new LinkedHashMap<String, List<String>>(MAX_PLAYLISTS, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, List<String>> eldest) {
+            return size() > MAX_PLAYLISTS;
+        }
+    };
+    private volatile int ahead = DEFAULT_AHEAD;
+
+    public SegmentPrefetcher(@NonNull SegmentCache cache) {
+        this.cache = cache;
+    }
+
+    public void setAhead(int ahead) {
+        this.ahead = Math.max(0, ahead);
+    }
+
+    public void onPlaylist(@NonNull String url, @NonNull String body) {
+        final HttpUrl base = HttpUrl.parse(url);
+        final List<String> segments = new ArrayList<>();
+        boolean media = false;
+
+        if (null == base) {
+            return;
+        }
+
+        for (String line : body.split("\n")) {
+            line = line.trim();
+
+            if (line.startsWith("#EXTINF")) {
+                media = true;
+            } else if (!line.isEmpty() && !line.startsWith("#")) {
+                HttpUrl segment = base.resolve(line);
+
+                if (null != segment) {
+                    segments.add(segment.toString());
+                }
+            }
+        }
+
+        if (media) {
+            synchronized (playlists) {
+                playlists.put(url, segments);
+            }
+        }
+    }
+
+    public void onSegmentRequested(@NonNull String url, @Nullable Map<String, String> headers) {
+        final List<String> next = getNextSegments(url, ahead);
+
+        for (String segment : next) {
+            if (!cache.contains(segment) && pending.add(segment)) {
+                executor.execute(() -> {
+                    try {
+                        if (cache.fetch(segment, headers)) {
+                            Log.v(TAG, "Prefetched " + segment);
+                        }
+                    } finally {
+                        pending.remove(segment);
+                    }
+                });
+            }
+        }
+    }
+
+    public boolean isKnownSegment(@NonNull String url) {
+        synchronized (playlists) {
+            for (List<String> segments : playlists.values()) {
+                if (segments.contains(url)) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
+    @NonNull
+    private List<String> getNextSegments(@NonNull String url, int count) {
+        synchronized (playlists) {
+            for (List<String> segments : playlists.values()) {
+                int index = segments.indexOf(url);
+
+                if (-1 != index) {
+                    return new ArrayList<>(segments.subList(index + 1, Math.min(segments.size(), index + 1 + count)));
+                }
+            }
+        }
+
+        return Collections.emptyList();
+    }
+}
@@ -0,0 +1,91 @@
+package com.sample.player;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+
+public class TsInputStream extends InputStream {
+    private final byte[] ring;
+    private final IngestStats stats;
+    private int readPosition = 0;
+    private int available = 0;
+    private boolean closed = false;
+
+    TsInputStream(int capacity, IngestStats stats) {
+        this.ring = new byte[capacity];
+        this.stats = stats;
+    }
+
+    synchronized void write(@NonNull ByteBuffer buffer) {
+        int length = buffer.remaining();
+
+        if (closed) {
+            return;
+        }
+
+        if (length > ring.length - available) {
+            stats.overflows.incrementAndGet();
+            return;
+        }
+
+        int writePosition = (readPosition + available) % ring.length;
+        int first = Math.min(length, ring.length - writePosition);
+
+        buffer.get(ring, writePosition, first);
+        buffer.get(ring, 0, length - first);
+        available += length;
+
+        notifyAll();
+    }
+
+    @Override
+    public synchronized int read(@NonNull byte[] target, int offset, int length) throws IOException {
+        if (0 == length) {
+            return 0;
+        }
+
+        while (0 == available && !closed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            }
+        }
+
+        if (0 == available) {
+            return -1;
+        }
+
+        int count = Math.min(length, available);
+        int first = Math.min(count, ring.length - readPosition);
+
+        System.arraycopy(ring, readPosition, target, offset, first);
+        System.arraycopy(ring, 0, target, offset + first, count - first);
+        readPosition = (readPosition + count) % ring.length;
+        available -= count;
+
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+
+        return -1 == read(single, 0, 1) ? -1 : single[0] & 0xFF;
+    }
+
+    @Override
+    public synchronized int available() {
+        return available;
+    }
+
+    @Override
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+}
@@ -0,0 +1,205 @@
+package com.sample.portal;
+
+import android.content.Context;
+import android.content.res.AssetManager;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.MimeTypeMap;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.BuildConfig;
+import com.sample.WebViewController;
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+public class PortalBundle implements WebViewController.RequestInterceptor {
+    private static final String TAG = "PortalBundle";
+    private static final String ASSETS_DIR = "portal";
+    private static final String BUNDLES_DIR = "portal-bundles";
+    private static final String ACTIVE_FILE = "active";
+    private static final String INDEX_FILE = "index.html";
+
+    private final AssetManager assets;
+    private final File root;
+    private final Uri origin;
+    private final String version;
+    private final File directory;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    public PortalBundle(@NonNull Context context, @NonNull String portalUrl) {
+        this.assets = context.getAssets();
+        this.root = new File(context.getFilesDir(), BUNDLES_DIR);
+        this.origin = Uri.parse(portalUrl);
+
+        String active = readActiveVersion();
+        File activeDirectory = null != active ? new File(root, active) : null;
+
+        if (null != activeDirectory && new File(activeDirectory, INDEX_FILE).exists() && PortalBundleUpdater.compareVersions(active, BuildConfig.PORTAL_VERSION) > 0) {
+            this.version = active;
+            this.directory = activeDirectory;
+        } else {
+            this.version = BuildConfig.PORTAL_VERSION;
+            this.directory = null;
+        }
+
+        Log.i(TAG, "Active bundle " + version + (null == directory ? " (assets)" : ""));
+        executor.execute(this::removeOutdatedBundles);
+    }
+
+    @NonNull
+    public String getVersion() {
+        return version;
+    }
+
+    @NonNull
+    File getRoot() {
+        return root;
+    }
+
+    void execute(@NonNull Runnable task) {
+        executor.execute(task);
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(@NonNull WebResourceRequest request) {
+        final Uri url = request.getUrl();
+
+        if (!"GET".equals(request.getMethod()) || !isPortalUrl(url)) {
+            return null;
+        }
+
+        String path = null != url.getPath() ? url.getPath() : "";
+
+        if (path.isEmpty() || path.endsWith("/")) {
+            path += INDEX_FILE;
+        }
+
+        if (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+
+        if (path.contains("..")) {
+            return null;
+        }
+
+        InputStream inputStream = open(path);
+
+        if (null == inputStream) {
+            return null;
+        }
+
+        Map<String, String> headers = new HashMap<>();
+        headers.put("Cache-Control", "no-cache");
+
+        return new WebResourceResponse(getMimeType(path), INDEX_FILE.equals(path) ? "utf-8" : null, 200, "OK", headers, inputStream);
+    }
+
+    synchronized void activate(@NonNull String version) throws IOException {
+        File temp = new File(root, ACTIVE_FILE + ".tmp");
+
+        try (OutputStream outputStream = new FileOutputStream(temp)) {
+            outputStream.write(version.getBytes(StandardCharsets.UTF_8));
+        }
+
+        if (!temp.renameTo(new File(root, ACTIVE_FILE))) {
+            temp.delete();
+            throw new IOException("Cannot activate bundle " + version);
+        }
+
+        Log.i(TAG, "Bundle " + version + " will be used on next start");
+    }
+
+    @Nullable
+    synchronized String readActiveVersion() {
+        File file = new File(root, ACTIVE_FILE);
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            String active = new String(Utils.readBytes(file), StandardCharsets.UTF_8).trim();
+            return active.isEmpty() ? null : active;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read " + file + ": " + e);
+            return null;
+        }
+    }
+
+    @Nullable
+    private InputStream open(@NonNull String path) {
+        try {
+            if (null != directory) {
+                File file = new File(directory, path);
+                return file.isFile() ? new FileInputStream(file) : null;
+            }
+
+            return assets.open(ASSETS_DIR + "/" + path);
+        } catch (FileNotFoundException e) {
+            return null;
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot open " + path + ": " + e);
+            return null;
+        }
+    }
+
+    private boolean isPortalUrl(@NonNull Uri url) {
+        return origin.getScheme() != null
+            && origin.getScheme().equals(url.getScheme())
+            && origin.getHost() != null
+            && origin.getHost().equals(url.getHost())
+            && origin.getPort() == url.getPort();
+    }
+
+    private void removeOutdatedBundles() {
+        String active = readActiveVersion();
+        File[] bundles = root.listFiles(File::isDirectory);
+
+        if (null != bundles) {
+            for (File bundle : bundles) {
+                if (!bundle.getName().equals(active) && !bundle.equals(directory)) {
+                    PortalBundleUpdater.delete(bundle);
+                }
+            }
+        }
+    }
+
+    @NonNull
+    private static String getMimeType(@NonNull String path) {
+        String extension = MimeTypeMap.getFileExtensionFromUrl(path);
+
+        switch (extension) {
+            case "html":
+                return "text/html";
+            case "js":
+                return "application/javascript";
+            case "css":
+                return "text/css";
+            case "json":
+                return "application/json";
+            case "svg":
+                return "image/svg+xml";
+        }
+
+        String mimeType = MimeTypeMap.getSingleton().getMimeTypeFromExtension(extension);
+
+        return null != mimeType ? mimeType : "application/octet-stream";
+    }
+}
@@ -0,0 +1,231 @@
+package com.sample.portal;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.helpers.HttpClient;
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+import okhttp3.HttpUrl;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+public class PortalBundleUpdater {
+    private static final String TAG = "PortalBundleUpdater";
+    private static final String MANIFEST_FILE = "bundle.json";
+    private static final String INDEX_FILE = "index.html";
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final PortalBundle bundle;
+    private final HttpUrl manifestUrl;
+    private boolean checked = false;
+
+    public PortalBundleUpdater(@NonNull PortalBundle bundle, @NonNull String portalUrl) {
+        HttpUrl url = HttpUrl.parse(portalUrl);
+
+        this.bundle = bundle;
+        this.manifestUrl = null != url ? url.resolve(MANIFEST_FILE) : null;
+    }
+
+    public synchronized void check() {
+        if (checked || null == manifestUrl) {
+            return;
+        }
+
+        checked = true;
+        bundle.execute(this::update);
+    }
+
+    public static int compareVersions(@Nullable String left, @Nullable String right) {
+        String[] leftParts = null != left ? left.split("[.-]") : new String[0];
+        String[] rightParts = null != right ? right.split("[.-]") : new String[0];
+
+        for (int i = 0; i < Math.max(leftParts.length, rightParts.length); i++) {
+            String leftPart = i < leftParts.length ? leftParts[i] : "0";
+            String rightPart = i < rightParts.length ? rightParts[i] : "0";
+            int result;
+
+            try {
+                result = Long.compare(Long.parseLong(leftPart), Long.parseLong(rightPart));
+            } catch (NumberFormatException e) {
+                result = leftPart.compareTo(rightPart);
+            }
+
+            if (0 != result) {
+                return result;
+            }
+        }
+
+        return 0;
+    }
+
+    static void delete(@NonNull File file) {
+        File[] children = file.listFiles();
+
+        if (null != children) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    private void update() {
+        try {
+            JSONObject manifest = fetchManifest();
+            String version = manifest.getString("version");
+            String active = bundle.readActiveVersion();
+            String current = null != active && compareVersions(active, bundle.getVersion()) > 0 ? active : bundle.getVersion();
+
+            if (compareVersions(version, current) <= 0) {
+                Log.i(TAG, "Bundle " + current + " is up to date");
+                return;
+            }
+
+            HttpUrl archiveUrl = manifestUrl.resolve(manifest.getString("url"));
+
+            if (null == archiveUrl) {
+                throw new IOException("Invalid bundle url " + manifest.getString("url"));
+            }
+
+            File archive = download(archiveUrl, version, manifest.getString("sha256"));
+
+            try {
+                extract(archive, version);
+            } finally {
+                archive.delete();
+            }
+
+            bundle.activate(version);
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Bundle update failed: " + e);
+        }
+    }
+
+    @NonNull
+    private JSONObject fetchManifest() throws IOException, JSONException {
+        Request request = new Request.Builder().url(manifestUrl).header("Cache-Control", "no-cache").build();
+
+        try (Response response = HttpClient.getInstance().newCall(request).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected manifest response " + response.code());
+            }
+
+            return new JSONObject(response.body().string());
+        }
+    }
+
+    @NonNull
+    private File download(@NonNull HttpUrl url, @NonNull String version, @NonNull String sha256) throws IOException {
+        final File root = bundle.getRoot();
+        final File archive = new File(root, version + ".zip");
+        final MessageDigest digest = createDigest();
+
+        if (!root.exists() && !root.mkdirs()) {
+            throw new IOException("Cannot create " + root);
+        }
+
+        try (Response response = HttpClient.getInstance().newCall(new Request.Builder().url(url).build()).execute()) {
+            if (!response.isSuccessful()) {
+                throw new IOException("Unexpected bundle response " + response.code());
+            }
+
+            try (InputStream inputStream = new DigestInputStream(response.body().byteStream(), digest); BufferedSink sink = Okio.buffer(Okio.sink(archive))) {
+                sink.writeAll(Okio.source(inputStream));
+            }
+        } catch (IOException e) {
+            archive.delete();
+            throw e;
+        }
+
+        String hash = Utils.toHex(digest.digest());
+
+        if (!hash.equalsIgnoreCase(sha256)) {
+            archive.delete();
+            throw new IOException("Bundle " + version + " hash mismatch: " + hash);
+        }
+
+        return archive;
+    }
+
+    private void extract(@NonNull File archive, @NonNull String version) throws IOException {
+        final File target = new File(bundle.getRoot(), version);
+        final File temp = new File(bundle.getRoot(), version + ".tmp");
+        final String tempPath = temp.getCanonicalPath() + File.separator;
+        final byte[] buffer = new byte[BUFFER_SIZE];
+
+        delete(temp);
+
+        try (ZipInputStream zipInputStream = new ZipInputStream(Okio.buffer(Okio.source(archive)).inputStream())) {
+            ZipEntry entry;
+
+            while (null != (entry = zipInputStream.getNextEntry())) {
+                File file = new File(temp, entry.getName());
+
+                if (!file.getCanonicalPath().startsWith(tempPath)) {
+                    throw new IOException("Illegal bundle entry " + entry.getName());
+                }
+
+                if (entry.isDirectory()) {
+                    file.mkdirs();
+                    continue;
+                }
+
+                File parent = file.getParentFile();
+
+                if (null != parent && !parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("Cannot create " + parent);
+                }
+
+                try (OutputStream outputStream = new FileOutputStream(file)) {
+                    int read;
+
+                    while (-1 != (read = zipInputStream.read(buffer))) {
+                        outputStream.write(buffer, 0, read);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            delete(temp);
+            throw e;
+        }
+
+        if (!new File(temp, INDEX_FILE).exists()) {
+            delete(temp);
+            throw new IOException("Bundle " + version + " has no " + INDEX_FILE);
+        }
+
+        delete(target);
+
+        if (!temp.renameTo(target)) {
+            delete(temp);
+            throw new IOException("Cannot move bundle " + version);
+        }
+    }
+
+    private static MessageDigest createDigest() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException exception) {
+            throw new IOException(exception);
+        }
+    }
+}
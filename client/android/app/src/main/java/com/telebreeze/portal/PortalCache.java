@@ -0,0 +1,402 @@
+package com.sample.portal;
+
+import android.content.Context;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.util.Log;
+import android.webkit.CookieManager;
+import android.webkit.WebResourceRequest;
+import android.webkit.WebResourceResponse;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.WebViewController;
+import com.sample.helpers.HttpClient;
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okio.BufferedSink;
+import okio.Okio;
+
+public class PortalCache implements WebViewController.RequestInterceptor {
+    private static final String TAG = "PortalCache";
+    private static final String CACHE_DIR = "portal-cache";
+    private static final String KEY_URL = "url";
+    private static final String KEY_CONTENT_TYPE = "contentType";
+    private static final String KEY_ETAG = "etag";
+    private static final String KEY_LAST_MODIFIED = "lastModified";
+    private static final String KEY_HEADER_PREFIX = "header.";
+    private static final Set<String> SHELL_EXTENSIONS = new HashSet<>(Arrays.asList(
+        "html", "htm", "js", "mjs", "css", "wasm", "woff", "woff2", "ttf", "otf", "png", "jpg", "jpeg", "gif", "webp", "svg", "ico"
+    ));
+
+    private final File root;
+    private final File directory;
+    private final Uri origin;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final OkHttpClient client = HttpClient.getInstance().newBuilder()
+        .followRedirects(false)
+        .followSslRedirects(false)
+        .build();
+    private final Set<String> revalidated = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    public PortalCache(@NonNull Context context, @NonNull String portalUrl) {
+        this.origin = Uri.parse(portalUrl);
+        this.root = new File(context.getFilesDir(), CACHE_DIR);
+        this.directory = new File(root, String.valueOf(getVersionCode(context)));
+
+        executor.execute(this::removeOutdatedVersions);
+    }
+
+    @Nullable
+    @Override
+    public WebResourceResponse intercept(@NonNull WebResourceRequest request) {
+        final Uri url = request.getUrl();
+        final Map<String, String> headers = request.getRequestHeaders();
+
+        if (!"GET".equals(request.getMethod())
+            || !isPortalUrl(url)
+            || !isShellAsset(url)
+            || headers.containsKey("Range")
+            || isNoCache(headers)) {
+            return null;
+        }
+
+        final String key = getKey(url.toString());
+        final File body = new File(directory, key);
+        final Properties meta = readMeta(key);
+
+        if (null != meta && body.exists()) {
+            if (revalidated.add(key)) {
+                executor.execute(() -> revalidate(url.toString(), headers, meta));
+            }
+
+            return createResponse(body, meta);
+        }
+
+        Response response = null;
+
+        try {
+            response = execute(url.toString(), headers, null);
+
+            if (response.isRedirect()) {
+                response.close();
+                return null;
+            }
+
+            if (!isCacheable(response)) {
+                return createResponse(response);
+            }
+
+            try (Response stored = response) {
+                Properties fetched = store(url.toString(), stored);
+                revalidated.add(key);
+
+                return null != fetched ? createResponse(body, fetched) : null;
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (null != response) {
+                response.close();
+            }
+
+            Log.w(TAG, "Cannot fetch " + url + ": " + e);
+            return null;
+        }
+    }
+
+    public void clear() {
+        revalidated.clear();
+        executor.execute(() -> delete(root));
+    }
+
+    private boolean isPortalUrl(@NonNull Uri url) {
+        return origin.getScheme() != null
+            && origin.getScheme().equals(url.getScheme())
+            && origin.getHost() != null
+            && origin.getHost().equals(url.getHost())
+            && origin.getPort() == url.getPort();
+    }
+
+    private void revalidate(@NonNull String url, @NonNull Map<String, String> headers, @NonNull Properties cached) {
+        try (Response response = execute(url, headers, cached)) {
+            if (isCacheable(response)) {
+                store(url, response);
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot revalidate " + url + ": " + e);
+        }
+    }
+
+    @NonNull
+    private Response execute(@NonNull String url, @NonNull Map<String, String> headers, @Nullable Properties cached) throws IOException {
+        Request.Builder builder = new Request.Builder().url(url);
+
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (!isSkippedRequestHeader(header.getKey())) {
+                builder.header(header.getKey(), header.getValue());
+            }
+        }
+
+        String cookie = CookieManager.getInstance().getCookie(url);
+
+        if (null != cookie) {
+            builder.header("Cookie", cookie);
+        }
+
+        if (null != cached && null != cached.getProperty(KEY_ETAG)) {
+            builder.header("If-None-Match", cached.getProperty(KEY_ETAG));
+        }
+
+        if (null != cached && null != cached.getProperty(KEY_LAST_MODIFIED)) {
+            builder.header("If-Modified-Since", cached.getProperty(KEY_LAST_MODIFIED));
+        }
+
+        Response response = client.newCall(builder.build()).execute();
+        List<String> cookies = response.headers("Set-Cookie");
+
+        if (!cookies.isEmpty()) {
+            CookieManager cookieManager = CookieManager.getInstance();
+
+            for (String value : cookies) {
+                cookieManager.setCookie(url, value);
+            }
+        }
+
+        return response;
+    }
+
+    @Nullable
+    private Properties store(@NonNull String url, @NonNull Response response) throws IOException {
+        final String key = getKey(url);
+        final File body = new File(directory, key);
+        final File temp = new File(directory, key + "." + Thread.currentThread().getId() + ".tmp");
+
+        if (!directory.exists() && !directory.mkdirs()) {
+            return null;
+        }
+
+        try (BufferedSink sink = Okio.buffer(Okio.sink(temp))) {
+            sink.writeAll(response.body().source());
+        }
+
+        Properties meta = new Properties();
+        meta.setProperty(KEY_URL, url);
+        meta.setProperty(KEY_CONTENT_TYPE, response.header("Content-Type", "application/octet-stream"));
+        put(meta, KEY_ETAG, response.header("ETag"));
+        put(meta, KEY_LAST_MODIFIED, response.header("Last-Modified"));
+
+        for (String name : response.headers().names()) {
+            if (!isSkippedResponseHeader(name)) {
+                meta.setProperty(KEY_HEADER_PREFIX + name, response.header(name));
+            }
+        }
+
+        if (!temp.renameTo(body)) {
+            temp.delete();
+            return null;
+        }
+
+        writeMeta(key, meta);
+        Log.i(TAG, "Stored " + url);
+
+        return meta;
+    }
+
+    @Nullable
+    private WebResourceResponse createResponse(@NonNull File body, @NonNull Properties meta) {
+        try {
+            String[] contentType = meta.getProperty(KEY_CONTENT_TYPE, "application/octet-stream").split(";");
+            String mimeType = contentType[0].trim();
+            String encoding = null;
+
+            for (int i = 1; i < contentType.length; i++) {
+                String parameter = contentType[i].trim();
+
+                if (parameter.toLowerCase().startsWith("charset=")) {
+                    encoding = parameter.substring("charset=".length());
+                }
+            }
+
+            Map<String, String> headers = new HashMap<>();
+
+            for (String name : meta.stringPropertyNames()) {
+                if (name.startsWith(KEY_HEADER_PREFIX)) {
+                    headers.put(name.substring(KEY_HEADER_PREFIX.length()), meta.getProperty(name));
+                }
+            }
+
+            headers.put("Cache-Control", "no-cache");
+
+            return new WebResourceResponse(mimeType, encoding, 200, "OK", headers, new FileInputStream(body));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    @NonNull
+    private static WebResourceResponse createResponse(@NonNull Response response) {
+        final MediaType contentType = response.body().contentType();
+        final Charset charset = null != contentType ? contentType.charset() : null;
+        final Map<String, String> headers = new HashMap<>();
+
+        for (String name : response.headers().names()) {
+            if (!"Set-Cookie".equalsIgnoreCase(name)) {
+                headers.put(name, response.header(name));
+            }
+        }
+
+        return new WebResourceResponse(
+            null != contentType ? contentType.type() + "/" + contentType.subtype() : "application/octet-stream",
+            null != charset ? charset.name() : null,
+            response.code(),
+            response.message().isEmpty() ? "Status " + response.code() : response.message(),
+            headers,
+            response.body().byteStream()
+        );
+    }
+
+    private static boolean isCacheable(@NonNull Response response) {
+        return 200 == response.code() && !response.header("Cache-Control", "").contains("no-store");
+    }
+
+    private static boolean isShellAsset(@NonNull Uri url) {
+        final String path = url.getPath();
+
+        if (null == path || path.isEmpty() || path.endsWith("/")) {
+            return true;
+        }
+
+        final String name = path.substring(path.lastIndexOf('/') + 1).toLowerCase();
+        final int dot = name.lastIndexOf('.');
+
+        return -1 != dot && SHELL_EXTENSIONS.contains(name.substring(dot + 1));
+    }
+
+    private static boolean isNoCache(@NonNull Map<String, String> headers) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            String value = header.getValue().toLowerCase();
+
+            if ("Cache-Control".equalsIgnoreCase(header.getKey()) && (value.contains("no-cache") || value.contains("no-store") || value.contains("max-age=0"))) {
+                return true;
+            }
+
+            if ("Pragma".equalsIgnoreCase(header.getKey()) && value.contains("no-cache")) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static boolean isSkippedRequestHeader(@NonNull String name) {
+        return "Accept-Encoding".equalsIgnoreCase(name)
+            || "If-None-Match".equalsIgnoreCase(name)
+            || "If-Modified-Since".equalsIgnoreCase(name);
+    }
+
+    private static boolean isSkippedResponseHeader(@NonNull String name) {
+        return "Set-Cookie".equalsIgnoreCase(name)
+            || "Cache-Control".equalsIgnoreCase(name)
+            || "Expires".equalsIgnoreCase(name)
+            || "Age".equalsIgnoreCase(name)
+            || "Date".equalsIgnoreCase(name)
+            || "Content-Length".equalsIgnoreCase(name)
+            || "Content-Type".equalsIgnoreCase(name);
+    }
+
+    @Nullable
+    private Properties readMeta(@NonNull String key) {
+        File file = new File(directory, key + ".meta");
+
+        if (!file.exists()) {
+            return null;
+        }
+
+        Properties meta = new Properties();
+
+        try (InputStream inputStream = new FileInputStream(file)) {
+            meta.load(inputStream);
+            return meta;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writeMeta(@NonNull String key, @NonNull Properties meta) throws IOException {
+        try (OutputStream outputStream = new FileOutputStream(new File(directory, key + ".meta"))) {
+            meta.store(outputStream, null);
+        }
+    }
+
+    private void removeOutdatedVersions() {
+        File[] versions = root.listFiles();
+
+        if (null != versions) {
+            for (File version : versions) {
+                if (!version.getName().equals(directory.getName())) {
+                    delete(version);
+                }
+            }
+        }
+    }
+
+    private static void put(Properties properties, String key, @Nullable String value) {
+        if (null != value) {
+            properties.setProperty(key, value);
+        }
+    }
+
+    private static void delete(@NonNull File file) {
+        File[] children = file.listFiles();
+
+        if (null != children) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+
+        file.delete();
+    }
+
+    private static String getKey(@NonNull String url) {
+        try {
+            return Utils.toHex(MessageDigest.getInstance("SHA-1").digest(url.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            return String.valueOf(url.hashCode());
+        }
+    }
+
+    private static long getVersionCode(@NonNull Context context) {
+        try {
+            return context.getPackageManager().getPackageInfo(context.getPackageName(), 0).versionCode;
+        } catch (PackageManager.NameNotFoundException e) {
+            return 0;
+        }
+    }
+}
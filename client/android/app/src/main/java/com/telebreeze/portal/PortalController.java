@@ -0,0 +1,45 @@
+package com.sample.portal;
+
+import android.app.Activity;
+
+import androidx.annotation.Nullable;
+
+import com.sample.BuildConfig;
+
+import com.sample.WebViewController;
+
+import de.andycandy.android.bridge.CallType;
+import de.andycandy.android.bridge.DefaultJSInterface;
+import de.andycandy.android.bridge.NativeCall;
+
+public class PortalController extends DefaultJSInterface {
+    private final Activity activity;
+    private final WebViewController webViewController;
+    private final PortalCache portalCache;
+    private final PortalBundle portalBundle;
+
+    public PortalController(Activity activity, WebViewController webViewController, PortalCache portalCache, @Nullable PortalBundle portalBundle) {
+        super("portal");
+
+        this.activity = activity;
+        this.webViewController = webViewController;
+        this.portalCache = portalCache;
+        this.portalBundle = portalBundle;
+    }
+
+    @NativeCall(CallType.FULL_SYNC)
+    public String getBundleVersion() {
+        return null != portalBundle ? portalBundle.getVersion() : BuildConfig.PORTAL_VERSION;
+    }
+
+    @NativeCall(CallType.FULL_SYNC)
+    public boolean isBundled() {
+        return null != portalBundle;
+    }
+
+    @NativeCall(CallType.FULL_SYNC)
+    public void clearCache() {
+        portalCache.clear();
+        activity.runOnUiThread(webViewController::clearCache);
+    }
+}
@@ -0,0 +1,133 @@
+package com.sample.system;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.util.Log;
+import android.util.LruCache;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+public class AppIconCache {
+    private static final String TAG = "AppIconCache";
+    private static final String ICONS_DIR = "icons";
+    private static final int[] SIZE_BUCKETS = {48, 96, 192};
+    private static final int DEFAULT_SIZE = 96;
+    private static final int MEMORY_CACHE_SIZE = 4 * 1024 * 1024;
+
+    private static AppIconCache instance;
+
+    private final Context context;
+    private final File directory;
+    private final LruCache<String, byte[]> memoryCache = new LruCache<String, byte[]>(MEMORY_CACHE_SIZE) {
+        @Override
+        protected int sizeOf(String key, byte[] value) {
+            return value.length;
+        }
+    };
+
+    private AppIconCache(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+        this.directory = new File(this.context.getCacheDir(), ICONS_DIR);
+    }
+
+    public static synchronized AppIconCache getInstance(@NonNull Context context) {
+        if (null == instance) {
+            instance = new AppIconCache(context);
+        }
+
+        return instance;
+    }
+
+    public static int getBucket(@Nullable Integer size) {
+        if (null == size || size <= 0) {
+            return DEFAULT_SIZE;
+        }
+
+        for (int bucket : SIZE_BUCKETS) {
+            if (size <= bucket) {
+                return bucket;
+            }
+        }
+
+        return SIZE_BUCKETS[SIZE_BUCKETS.length - 1];
+    }
+
+    @NonNull
+    public byte[] getIcon(@NonNull String packageName, @Nullable Integer size) throws PackageManager.NameNotFoundException {
+        final PackageManager pm = context.getPackageManager();
+        final PackageInfo packageInfo = pm.getPackageInfo(packageName, 0);
+        final int bucket = getBucket(size);
+        final String key = packageName + "-" + packageInfo.lastUpdateTime + "-" + bucket;
+
+        byte[] icon = memoryCache.get(key);
+
+        if (null != icon) {
+            return icon;
+        }
+
+        File file = new File(directory, key + ".png");
+        icon = read(file);
+
+        if (null == icon) {
+            icon = Utils.toPng(pm.getApplicationIcon(packageInfo.applicationInfo), bucket);
+            write(packageName, packageInfo.lastUpdateTime, file, icon);
+        }
+
+        memoryCache.put(key, icon);
+
+        return icon;
+    }
+
+    @Nullable
+    private byte[] read(@NonNull File file) {
+        if (!file.exists()) {
+            return null;
+        }
+
+        try {
+            return Utils.readBytes(file);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read " + file + ": " + e);
+            return null;
+        }
+    }
+
+    private void write(@NonNull String packageName, long lastUpdateTime, @NonNull File file, @NonNull byte[] icon) {
+        if (!directory.exists() && !directory.mkdirs()) {
+            return;
+        }
+
+        final String prefix = packageName + "-";
+        final String currentPrefix = prefix + lastUpdateTime + "-";
+        File[] outdated = directory.listFiles((dir, name) -> name.startsWith(prefix) && !name.startsWith(currentPrefix));
+
+        if (null != outdated) {
+            for (File item : outdated) {
+                item.delete();
+            }
+        }
+
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (OutputStream outputStream = new FileOutputStream(temp)) {
+            outputStream.write(icon);
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot write " + file + ": " + e);
+            temp.delete();
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            temp.delete();
+        }
+    }
+}
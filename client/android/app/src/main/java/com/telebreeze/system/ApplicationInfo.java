@@ -1,12 +1,21 @@
 package com.sample.system;
 
+import android.content.Context;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
+import android.content.res.Resources;
 
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.sample.R;
 import com.sample.helpers.Utils;
 
 import java.io.File;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
 public class ApplicationInfo {
     public String firstActivityName;
     public String packageName;
@@ -22,6 +31,10 @@ public class ApplicationInfo {
     public String branch;
     public String commit;
 
+    private static ApplicationInfo self;
+
+    private ApplicationInfo() {}
+
     public ApplicationInfo(final PackageInfo packageInfo, final PackageManager pm) {
         String firstActivityName = "";
 
@@ -36,7 +49,6 @@ public class ApplicationInfo {
         this.firstInstallTime = packageInfo.firstInstallTime;
         this.lastUpdateTime = packageInfo.lastUpdateTime;
         this.appName = ((String) packageInfo.applicationInfo.loadLabel(pm)).trim();
-        this.icon = Utils.convert(pm.getApplicationIcon(packageInfo.applicationInfo));
         this.apkDir = packageInfo.applicationInfo.publicSourceDir;
         this.size = new File(this.apkDir).length();
     }
@@ -48,6 +60,57 @@ public class ApplicationInfo {
         this.flavor = flavor;
     }
 
+    public static ApplicationInfo fromJson(final JSONObject json) throws JSONException {
+        ApplicationInfo info = new ApplicationInfo();
+
+        info.firstActivityName = json.optString("firstActivityName");
+        info.packageName = json.getString("packageName");
+        info.versionName = json.optString("versionName", null);
+        info.versionCode = json.optInt("versionCode");
+        info.firstInstallTime = json.optLong("firstInstallTime");
+        info.lastUpdateTime = json.getLong("lastUpdateTime");
+        info.appName = json.optString("appName");
+        info.apkDir = json.optString("apkDir", null);
+        info.size = json.optLong("size");
+
+        return info;
+    }
+
+    public JSONObject toJson() throws JSONException {
+        return new JSONObject()
+            .put("firstActivityName", firstActivityName)
+            .put("packageName", packageName)
+            .put("versionName", versionName)
+            .put("versionCode", versionCode)
+            .put("firstInstallTime", firstInstallTime)
+            .put("lastUpdateTime", lastUpdateTime)
+            .put("appName", appName)
+            .put("apkDir", apkDir)
+            .put("size", size);
+    }
+
+    @Nullable
+    public static synchronized ApplicationInfo getSelf(@NonNull Context context) {
+        if (null == self) {
+            try {
+                final Resources res = context.getResources();
+                final PackageManager pm = context.getPackageManager();
+                final PackageInfo packageInfo = pm.getPackageInfo(context.getPackageName(), 0);
+
+                self = new ApplicationInfo(packageInfo, res.getString(R.string.flavor), res.getString(R.string.branch), res.getString(R.string.commit), pm);
+            } catch (PackageManager.NameNotFoundException ignore) {
+                return null;
+            }
+        }
+
+        return self;
+    }
+
+    @NonNull
+    public static String getSelfIcon(@NonNull Context context) throws PackageManager.NameNotFoundException {
+        return Utils.convert(context.getPackageManager().getApplicationIcon(context.getPackageName()));
+    }
+
     public String getApkVersion() {
         return "apk-" + versionName + "-" + versionCode + "-" + commit + "-" + branch + "-" + flavor;
     }
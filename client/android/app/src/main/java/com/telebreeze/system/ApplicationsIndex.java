@@ -0,0 +1,186 @@
+package com.sample.system;
+
+import android.annotation.SuppressLint;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.net.Uri;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.sample.helpers.Utils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+public class ApplicationsIndex {
+    public interface Listener {
+        void onResult(List<ApplicationInfo> apps);
+
+        void onError(Exception exception);
+    }
+
+    private static final String TAG = "ApplicationsIndex";
+    private static final String INDEX_FILE = "applications.json";
+
+    private static ApplicationsIndex instance;
+
+    private final Context context;
+    private final File file;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Map<String, ApplicationInfo> apps = new LinkedHashMap<>();
+    private boolean synced = false;
+
+    private final BroadcastReceiver packageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            Uri data = intent.getData();
+
+            if (null != data && null != data.getSchemeSpecificPart()) {
+                final String packageName = data.getSchemeSpecificPart();
+                executor.execute(() -> update(packageName));
+            }
+        }
+    };
+
+    private ApplicationsIndex(@NonNull Context context) {
+        this.context = context.getApplicationContext();
+        this.file = new File(this.context.getFilesDir(), INDEX_FILE);
+
+        registerPackageReceiver();
+        executor.execute(this::load);
+    }
+
+    public static synchronized ApplicationsIndex getInstance(@NonNull Context context) {
+        if (null == instance) {
+            instance = new ApplicationsIndex(context);
+        }
+
+        return instance;
+    }
+
+    public void getApps(@NonNull Listener listener) {
+        executor.execute(() -> {
+            try {
+                if (!synced) {
+                    sync();
+                    synced = true;
+                }
+
+                listener.onResult(new ArrayList<>(apps.values()));
+            } catch (Exception e) {
+                listener.onError(e);
+            }
+        });
+    }
+
+    @SuppressLint("UnspecifiedRegisterReceiverFlag")
+    private void registerPackageReceiver() {
+        IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addDataScheme("package");
+
+        context.registerReceiver(packageReceiver, filter);
+    }
+
+    private void sync() {
+        final PackageManager pm = context.getPackageManager();
+        final List<PackageInfo> packages = pm.getInstalledPackages(0);
+        final Set<String> installed = new HashSet<>();
+        int rebuilt = 0;
+
+        for (PackageInfo packageInfo : packages) {
+            ApplicationInfo cached = apps.get(packageInfo.packageName);
+            installed.add(packageInfo.packageName);
+
+            if (null == cached || cached.lastUpdateTime != packageInfo.lastUpdateTime) {
+                apps.put(packageInfo.packageName, new ApplicationInfo(packageInfo, pm));
+                rebuilt++;
+            }
+        }
+
+        int removed = apps.size();
+        apps.keySet().retainAll(installed);
+        removed -= apps.size();
+
+        Log.i(TAG, "Synced " + apps.size() + " apps, rebuilt: " + rebuilt + ", removed: " + removed);
+
+        if (rebuilt > 0 || removed > 0) {
+            save();
+        }
+    }
+
+    private void update(@NonNull String packageName) {
+        final PackageManager pm = context.getPackageManager();
+
+        try {
+            apps.put(packageName, new ApplicationInfo(pm.getPackageInfo(packageName, 0), pm));
+        } catch (PackageManager.NameNotFoundException e) {
+            apps.remove(packageName);
+        }
+
+        save();
+    }
+
+    private void load() {
+        if (!file.exists()) {
+            return;
+        }
+
+        try {
+            JSONArray array = new JSONArray(new String(Utils.readBytes(file), StandardCharsets.UTF_8));
+
+            for (int i = 0; i < array.length(); i++) {
+                ApplicationInfo info = ApplicationInfo.fromJson(array.getJSONObject(i));
+                apps.put(info.packageName, info);
+            }
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Cannot read " + file + ": " + e);
+            apps.clear();
+        }
+    }
+
+    private void save() {
+        File temp = new File(file.getPath() + ".tmp");
+
+        try (OutputStream outputStream = new FileOutputStream(temp)) {
+            JSONArray array = new JSONArray();
+
+            for (ApplicationInfo info : apps.values()) {
+                array.put(info.toJson());
+            }
+
+            outputStream.write(array.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException | JSONException e) {
+            Log.w(TAG, "Cannot write " + file + ": " + e);
+            temp.delete();
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.w(TAG, "Cannot replace " + file);
+            temp.delete();
+        }
+    }
+}
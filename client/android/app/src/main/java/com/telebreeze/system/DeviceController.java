@@ -1,32 +1,34 @@
 package com.sample.system;
 
 import android.annotation.SuppressLint;
-import android.app.UiModeManager;
 import android.content.ComponentName;
-import android.content.Context;
 import android.content.Intent;
 import android.content.pm.ActivityInfo;
 import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
 import android.content.res.Configuration;
-import android.os.Build;
 import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
 import android.provider.Settings;
+import android.util.Base64;
 import android.util.Log;
+import android.view.Choreographer;
 import android.view.Window;
+import android.webkit.WebView;
 
+import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.view.WindowCompat;
 import androidx.core.view.WindowInsetsCompat;
 import androidx.core.view.WindowInsetsControllerCompat;
+import androidx.webkit.WebViewAssetLoader;
 
 import com.sample.MainActivity;
+import com.sample.NativeResourceLoader;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import de.andycandy.android.bridge.CallType;
@@ -35,91 +37,189 @@ import de.andycandy.android.bridge.JSFunctionWithArg;
 import de.andycandy.android.bridge.NativeCall;
 import de.andycandy.android.bridge.Promise;
 
+import org.json.JSONException;
+
 public class DeviceController extends DefaultJSInterface {
-    private static final String[] STB_CPU_LIST = {
-        "Amlogic",
-        "Allwinner",
-        "Broadcom",
-        "Quantenna",
-        "Annapurna Labs",
-        "Rockchip",
-        "Nvidia",
-        "STMicro",
-        "Sigma Designs",
-    };
+    public static final String ICONS_PATH = "/native/icons/";
+    public static final String DEVICE_PATH = "/native/device/";
 
-    private static final String[] TV_FEATURES = {
-        "android.hardware.hdmi.cec",
-    };
+    private static final long KEY_DRAW_TIMEOUT = 500;
 
-    private final DeviceInfo info;
+    private DeviceInfo info;
+    private volatile DeviceProfile profile;
+    private boolean benchmarkScheduled;
+    private final ApplicationsIndex applications;
+    private final AppIconCache icons;
     private final MainActivity activity;
     private int orientation;
     private boolean fullscreen = false;
     private JSFunctionWithArg<RemoteKeyEvent> onKeyEventCallback;
-
-    private boolean checkFeatures(final String[] features, boolean state) {
-        for (final String feature : features) {
-            if (this.activity.getPackageManager().hasSystemFeature(feature) != state) {
-                return false;
-            }
+    private final RemoteKeyEvent pendingKeyEvent = new RemoteKeyEvent();
+    private final RemoteKeyEvent deliveredKeyEvent = new RemoteKeyEvent();
+    private final WebView.VisualStateCallback keyDrawCallback = new WebView.VisualStateCallback() {
+        @Override
+        public void onComplete(long requestId) {
+            keyDrawAwaitedSince = 0;
+        }
+    };
+    private final Choreographer.FrameCallback keyFrameCallback = (frameTimeNanos) -> onKeyFrame();
+    private boolean keyEventPending = false;
+    private boolean keyFramePosted = false;
+    private volatile long keyDrawAwaitedSince = 0;
+
+    private synchronized DeviceProfile getProfile() {
+        if (null == profile) {
+            profile = DeviceProfile.load(activity);
         }
 
-        return true;
+        return profile;
     }
 
-    private boolean checkHardwareName(String value) {
-        for (final String cpuName : STB_CPU_LIST) {
-            if (cpuName.equals(value)) {
-                return true;
-            }
+    private synchronized DeviceInfo getDeviceInfo() {
+        if (null == info) {
+            info = new DeviceInfo(activity);
         }
 
-        return false;
+        return info;
     }
 
-    private String getCpuName() {
-        try {
-            BufferedReader br = new BufferedReader(new FileReader("/proc/cpuinfo"));
-            String line = br.readLine();
+    public DeviceController(MainActivity activity) {
+        super("device");
 
-            while (null != line) {
-                if (!line.isEmpty()) {
-                    String[] array = line.split(":\\s+", 2);
+        this.activity = activity;
+        applications = ApplicationsIndex.getInstance(activity);
+        icons = AppIconCache.getInstance(activity);
+    }
 
-                    if (array.length >= 2 && array[0].trim().equals("Hardware")) {
-                        return array[1].trim();
-                    }
-                }
+    @NonNull
+    public String getLoadedPerformanceTier(@NonNull String fallback) {
+        DeviceProfile loaded = profile;
 
-                line = br.readLine();
-            }
+        return null != loaded ? loaded.performanceTier : fallback;
+    }
 
-            br.close();
-        } catch (IOException e) {
-            e.printStackTrace();
+    public void scheduleBenchmark() {
+        if (benchmarkScheduled) {
+            return;
         }
 
-        return null;
+        benchmarkScheduled = true;
+        Looper.myQueue().addIdleHandler(() -> {
+            new Thread(() -> {
+                DeviceProfile current = getProfile();
+
+                if (!current.isBenchmarked()) {
+                    current.updateBenchmark(activity, PerformanceTier.measure());
+                }
+            }, "DeviceBenchmark").start();
+
+            return false;
+        });
     }
 
-    public DeviceController(MainActivity activity) {
-        super("device");
+    public void preloadInfo() {
+        getDeviceInfo();
+    }
 
-        this.activity = activity;
-        info = new DeviceInfo(activity);
+    public void preloadProfile() {
+        getProfile();
+    }
+
+    public boolean acceptKeyRepeat() {
+        final long now = SystemClock.uptimeMillis();
+
+        if (0 != keyDrawAwaitedSince && now - keyDrawAwaitedSince < KEY_DRAW_TIMEOUT) {
+            return false;
+        }
+
+        keyDrawAwaitedSince = now;
+        activity.getWebViewController().postVisualStateCallback(keyDrawCallback);
+
+        return true;
     }
 
     public void onKeyPressed(RemoteKeyEvent event) {
-        if (null != onKeyEventCallback) {
-            onKeyEventCallback.call(event);
+        if (null == onKeyEventCallback) {
+            return;
+        }
+
+        if (event.isRepeat()) {
+            if (keyEventPending && pendingKeyEvent.code == event.code) {
+                pendingKeyEvent.repeatCount++;
+            } else {
+                flushKeyEvent();
+                pendingKeyEvent.set(event).repeatCount = 1;
+                keyEventPending = true;
+            }
+
+            if (!keyFramePosted) {
+                keyFramePosted = true;
+                Choreographer.getInstance().postFrameCallback(keyFrameCallback);
+            }
+
+            return;
+        }
+
+        if (keyEventPending && pendingKeyEvent.code == event.code) {
+            keyEventPending = false;
+        } else {
+            flushKeyEvent();
+        }
+
+        deliverKeyEvent(event);
+    }
+
+    private void onKeyFrame() {
+        keyFramePosted = false;
+        flushKeyEvent();
+    }
+
+    private void flushKeyEvent() {
+        if (keyEventPending) {
+            keyEventPending = false;
+            deliverKeyEvent(pendingKeyEvent);
         }
     }
 
+    private void deliverKeyEvent(RemoteKeyEvent event) {
+        onKeyEventCallback.call(deliveredKeyEvent.set(event));
+    }
+
     public PackageInfo getAppInfo() throws PackageManager.NameNotFoundException {
         return this.activity.getPackageManager().getPackageInfo(this.activity.getPackageName(), 0);
     }
 
+    public WebViewAssetLoader.PathHandler getIconsHandler() {
+        return (path) -> {
+            String[] parts = path.split("/");
+
+            if (2 != parts.length || !parts[1].endsWith(".png")) {
+                return NativeResourceLoader.createNotFoundResponse();
+            }
+
+            try {
+                String packageName = parts[1].substring(0, parts[1].length() - ".png".length());
+                return NativeResourceLoader.createResponse("image/png", icons.getIcon(packageName, Integer.parseInt(parts[0])));
+            } catch (PackageManager.NameNotFoundException | NumberFormatException e) {
+                return NativeResourceLoader.createNotFoundResponse();
+            }
+        };
+    }
+
+    public WebViewAssetLoader.PathHandler getDeviceHandler() {
+        return (path) -> {
+            try {
+                if ("info.json".equals(path)) {
+                    return NativeResourceLoader.createResponse("application/json", getDeviceInfo().toJson().toString().getBytes(StandardCharsets.UTF_8));
+                }
+            } catch (JSONException e) {
+                Log.e("Device info", e.toString());
+            }
+
+            return NativeResourceLoader.createNotFoundResponse();
+        };
+    }
+
     public void openSystemSettings() {
         Intent settingsIntent = new Intent(Settings.ACTION_SETTINGS);
         settingsIntent.setFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
@@ -160,6 +260,7 @@ public class DeviceController extends DefaultJSInterface {
     @NativeCall(CallType.FULL_SYNC)
     public void onKeyEvent(JSFunctionWithArg<RemoteKeyEvent> callback) {
         onKeyEventCallback = callback;
+        keyDrawAwaitedSince = 0;
     }
 
     @NativeCall(CallType.FULL_SYNC)
@@ -180,62 +281,67 @@ public class DeviceController extends DefaultJSInterface {
 
     @NativeCall(CallType.FULL_SYNC)
     public boolean isTv() {
-        if (((UiModeManager) this.activity.getSystemService(Context.UI_MODE_SERVICE)).getCurrentModeType() == Configuration.UI_MODE_TYPE_TELEVISION) {
-            return true;
-        }
+        return getProfile().tv;
+    }
 
-        if (this.checkHardwareName(Build.HARDWARE) || this.checkHardwareName(getCpuName())) {
-            return true;
-        }
+    @NativeCall(CallType.FULL_SYNC)
+    public DeviceProfile getDeviceProfile() {
+        return getProfile();
+    }
 
-        return this.checkFeatures(TV_FEATURES, true);
+    @NativeCall(CallType.FULL_SYNC)
+    public String getPerformanceTier() {
+        return getProfile().performanceTier;
     }
 
     @NativeCall(CallType.FULL_SYNC)
     public String getId() {
-        return info.id;
+        return getDeviceInfo().id;
     }
 
     @NativeCall(CallType.FULL_SYNC)
     public String getOSVersion() {
-        return info.systemVersion;
+        return getDeviceInfo().systemVersion;
     }
 
     @NativeCall(CallType.FULL_SYNC)
     public DeviceInfo getInfo() {
-        return info;
+        return getDeviceInfo();
+    }
+
+    @NativeCall(CallType.FULL_SYNC)
+    public String getResourcesUrl() {
+        return NativeResourceLoader.ORIGIN + "/native/";
     }
 
     @NativeCall(CallType.FULL_PROMISE)
     public Promise<List<ApplicationInfo>> getApps() {
         return doInBackground((promise) -> {
-            class OneShotTask implements Runnable {
-                private final Context context;
-
-                OneShotTask(final Context context) {
-                    this.context = context;
+            applications.getApps(new ApplicationsIndex.Listener() {
+                @Override
+                public void onResult(List<ApplicationInfo> apps) {
+                    promise.resolve(apps);
                 }
 
-                public void run() {
-                    try {
-                        final PackageManager pm = this.context.getPackageManager();
-                        final List<PackageInfo> packages = pm.getInstalledPackages(0);
-                        final List<ApplicationInfo> apps = new ArrayList<>();
+                @Override
+                public void onError(Exception exception) {
+                    promise.reject(exception);
+                }
+            });
 
-                        for (int i = 0; i < packages.size(); i++) {
-                            apps.add(new ApplicationInfo(packages.get(i), pm));
-                        }
+            return null;
+        });
+    }
 
-                        promise.resolve(apps);
-                    } catch (final Exception ex) {
-                        promise.reject(ex);
-                    }
-                }
+    @NativeCall(CallType.FULL_PROMISE)
+    public Promise<String> getAppIcon(String packageName, @Nullable Integer size) {
+        return doInBackground((promise) -> {
+            try {
+                promise.resolve(Base64.encodeToString(icons.getIcon(packageName, size), Base64.NO_WRAP));
+            } catch (Exception e) {
+                promise.reject(e);
             }
 
-            Thread t = new Thread(new OneShotTask(this.activity));
-            t.start();
-
             return null;
         });
     }
@@ -4,6 +4,9 @@ import android.content.Context;
 import android.os.Build;
 import android.provider.Settings;
 
+import org.json.JSONException;
+import org.json.JSONObject;
+
 public class DeviceInfo {
     public String id;
     public String brand = Build.BRAND;
@@ -17,4 +20,16 @@ public class DeviceInfo {
     public DeviceInfo(Context context) {
         id = Settings.Secure.getString(context.getContentResolver(), Settings.Secure.ANDROID_ID);
     }
+
+    public JSONObject toJson() throws JSONException {
+        return new JSONObject()
+            .put("id", id)
+            .put("brand", brand)
+            .put("name", name)
+            .put("manufacturer", manufacturer)
+            .put("model", model)
+            .put("build", build)
+            .put("systemVersion", systemVersion)
+            .put("sdkVersion", sdkVersion);
+    }
 }
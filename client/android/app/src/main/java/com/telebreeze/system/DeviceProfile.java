@@ -0,0 +1,290 @@
+package com.sample.system;
+
+import android.app.ActivityManager;
+import android.app.UiModeManager;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.media.MediaCodecInfo;
+import android.media.MediaCodecList;
+import android.os.Build;
+import android.util.DisplayMetrics;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+public class DeviceProfile {
+    private static final String TAG = "DeviceProfile";
+    private static final String PREFERENCES = "device_profile";
+    private static final String KEY_FINGERPRINT = "fingerprint";
+    private static final String KEY_PROFILE = "profile";
+
+    private static final String[] STB_CPU_LIST = {
+        "Amlogic",
+        "Allwinner",
+        "Broadcom",
+        "Quantenna",
+        "Annapurna Labs",
+        "Rockchip",
+        "Nvidia",
+        "STMicro",
+        "Sigma Designs",
+    };
+
+    private static final String[] TV_FEATURES = {
+        "android.hardware.hdmi.cec",
+    };
+
+    private static final String[] FEATURES = {
+        "android.hardware.hdmi.cec",
+        "android.hardware.touchscreen",
+        "android.software.leanback",
+        "android.software.live_tv",
+        "android.software.picture_in_picture",
+        "android.hardware.ethernet",
+        "android.hardware.wifi",
+        "android.hardware.bluetooth",
+    };
+
+    public boolean tv;
+    public String hardware;
+    public String cpuName;
+    public List<String> features = new ArrayList<>();
+    public List<String> codecs = new ArrayList<>();
+    public long totalMemory;
+    public boolean lowRamDevice;
+    public int screenWidth;
+    public int screenHeight;
+    public int screenDensity;
+    public int cores;
+    public int maxFrequency;
+    public int benchmarkScore;
+    public String performanceTier;
+
+    private DeviceProfile() {}
+
+    @NonNull
+    public static DeviceProfile load(@NonNull Context context) {
+        final SharedPreferences preferences = context.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE);
+        DeviceProfile profile = null;
+
+        if (Build.FINGERPRINT.equals(preferences.getString(KEY_FINGERPRINT, null))) {
+            try {
+                profile = fromJson(new JSONObject(preferences.getString(KEY_PROFILE, "{}")));
+            } catch (JSONException e) {
+                Log.w(TAG, "Cannot read stored profile: " + e);
+            }
+        }
+
+        if (null == profile) {
+            profile = create(context);
+            save(context, profile);
+        }
+
+        profile.readScreen(context);
+
+        return profile;
+    }
+
+    public boolean isBenchmarked() {
+        return benchmarkScore > 0;
+    }
+
+    public void updateBenchmark(@NonNull Context context, int score) {
+        benchmarkScore = score;
+        performanceTier = PerformanceTier.classify(cores, maxFrequency, totalMemory, lowRamDevice, benchmarkScore);
+        save(context, this);
+
+        Log.i(TAG, "Benchmarked " + Build.FINGERPRINT + ", tier: " + performanceTier + ", score: " + benchmarkScore);
+    }
+
+    private static void save(@NonNull Context context, @NonNull DeviceProfile profile) {
+        try {
+            context.getSharedPreferences(PREFERENCES, Context.MODE_PRIVATE).edit()
+                .putString(KEY_FINGERPRINT, Build.FINGERPRINT)
+                .putString(KEY_PROFILE, profile.toJson().toString())
+                .apply();
+        } catch (JSONException e) {
+            Log.w(TAG, "Cannot store profile: " + e);
+        }
+    }
+
+    public boolean hasFeature(String feature) {
+        return features.contains(feature);
+    }
+
+    @NonNull
+    private static DeviceProfile create(@NonNull Context context) {
+        final PackageManager pm = context.getPackageManager();
+        final DeviceProfile profile = new DeviceProfile();
+
+        profile.hardware = Build.HARDWARE;
+        profile.cpuName = readCpuName();
+
+        for (String feature : FEATURES) {
+            if (pm.hasSystemFeature(feature)) {
+                profile.features.add(feature);
+            }
+        }
+
+        profile.codecs = readCodecs();
+        readMemory(context, profile);
+        profile.tv = isTv(context, profile);
+        profile.cores = Runtime.getRuntime().availableProcessors();
+        profile.maxFrequency = PerformanceTier.readMaxFrequency(profile.cores);
+        profile.performanceTier = PerformanceTier.classify(profile.cores, profile.maxFrequency, profile.totalMemory, profile.lowRamDevice, profile.benchmarkScore);
+
+        Log.i(TAG, "Created profile for " + Build.FINGERPRINT + ", tier: " + profile.performanceTier);
+
+        return profile;
+    }
+
+    private static boolean isTv(@NonNull Context context, @NonNull DeviceProfile profile) {
+        UiModeManager uiModeManager = (UiModeManager) context.getSystemService(Context.UI_MODE_SERVICE);
+
+        if (null != uiModeManager && uiModeManager.getCurrentModeType() == Configuration.UI_MODE_TYPE_TELEVISION) {
+            return true;
+        }
+
+        if (isStbHardware(profile.hardware) || isStbHardware(profile.cpuName)) {
+            return true;
+        }
+
+        for (String feature : TV_FEATURES) {
+            if (!profile.hasFeature(feature)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean isStbHardware(@Nullable String value) {
+        for (final String cpuName : STB_CPU_LIST) {
+            if (cpuName.equals(value)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Nullable
+    private static String readCpuName() {
+        try (BufferedReader reader = new BufferedReader(new FileReader("/proc/cpuinfo"))) {
+            String line;
+
+            while (null != (line = reader.readLine())) {
+                int separator = line.indexOf(':');
+
+                if (separator > 0 && line.substring(0, separator).trim().equals("Hardware")) {
+                    return line.substring(separator + 1).trim();
+                }
+            }
+        } catch (IOException e) {
+            Log.w(TAG, "Cannot read cpuinfo: " + e);
+        }
+
+        return null;
+    }
+
+    @NonNull
+    private static List<String> readCodecs() {
+        final TreeSet<String> codecs = new TreeSet<>();
+
+        try {
+            for (MediaCodecInfo codecInfo : new MediaCodecList(MediaCodecList.REGULAR_CODECS).getCodecInfos()) {
+                if (!codecInfo.isEncoder()) {
+                    for (String type : codecInfo.getSupportedTypes()) {
+                        codecs.add(type.toLowerCase());
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Cannot read codecs: " + e);
+        }
+
+        return new ArrayList<>(codecs);
+    }
+
+    private static void readMemory(@NonNull Context context, @NonNull DeviceProfile profile) {
+        ActivityManager activityManager = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
+
+        if (null != activityManager) {
+            ActivityManager.MemoryInfo memoryInfo = new ActivityManager.MemoryInfo();
+            activityManager.getMemoryInfo(memoryInfo);
+
+            profile.totalMemory = memoryInfo.totalMem;
+            profile.lowRamDevice = activityManager.isLowRamDevice();
+        }
+    }
+
+    private void readScreen(@NonNull Context context) {
+        DisplayMetrics metrics = context.getResources().getDisplayMetrics();
+
+        screenWidth = metrics.widthPixels;
+        screenHeight = metrics.heightPixels;
+        screenDensity = metrics.densityDpi;
+    }
+
+    @NonNull
+    private static DeviceProfile fromJson(@NonNull JSONObject json) throws JSONException {
+        DeviceProfile profile = new DeviceProfile();
+
+        profile.tv = json.getBoolean("tv");
+        profile.hardware = json.optString("hardware", null);
+        profile.cpuName = json.optString("cpuName", null);
+        profile.features = toList(json.optJSONArray("features"));
+        profile.codecs = toList(json.optJSONArray("codecs"));
+        profile.totalMemory = json.optLong("totalMemory");
+        profile.lowRamDevice = json.optBoolean("lowRamDevice");
+        profile.cores = json.optInt("cores");
+        profile.maxFrequency = json.optInt("maxFrequency");
+        profile.benchmarkScore = json.optInt("benchmarkScore");
+        profile.performanceTier = json.getString("performanceTier");
+
+        return profile;
+    }
+
+    @NonNull
+    private JSONObject toJson() throws JSONException {
+        return new JSONObject()
+            .put("tv", tv)
+            .put("hardware", hardware)
+            .put("cpuName", cpuName)
+            .put("features", new JSONArray(features))
+            .put("codecs", new JSONArray(codecs))
+            .put("totalMemory", totalMemory)
+            .put("lowRamDevice", lowRamDevice)
+            .put("cores", cores)
+            .put("maxFrequency", maxFrequency)
+            .put("benchmarkScore", benchmarkScore)
+            .put("performanceTier", performanceTier);
+    }
+
+    @NonNull
+    private static List<String> toList(@Nullable JSONArray array) throws JSONException {
+        List<String> list = new ArrayList<>();
+
+        if (null != array) {
+            for (int i = 0; i < array.length(); i++) {
+                list.add(array.getString(i));
+            }
+        }
+
+        return list;
+    }
+}
@@ -0,0 +1,107 @@
+package com.sample.system;
+
+import android.os.SystemClock;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+
+public final class PerformanceTier {
+    public static final String LOW = "low";
+    public static final String MEDIUM = "medium";
+    public static final String HIGH = "high";
+
+    private static final long BENCHMARK_DURATION = 50;
+    private static final int BENCHMARK_BUFFER_SIZE = 16 * 1024;
+    private static final long LOW_MEMORY = 1536L * 1024 * 1024;
+    private static final long MEDIUM_MEMORY = 2048L * 1024 * 1024;
+    private static final long HIGH_MEMORY = 3072L * 1024 * 1024;
+    private static final int MEDIUM_FREQUENCY = 1500;
+    private static final int HIGH_FREQUENCY = 2000;
+    private static final int CRITERIA = 6;
+    private static final int BENCHMARK_CRITERIA = 2;
+
+    /*
+     * Rounds per second of the JIT-compiled benchmark loop. These are estimates from the loop's cost, not field
+     * measurements: a round is 16K dependent multiply/xor/store iterations, about 80K cycles on an in-order
+     * Cortex-A53 (~15K rounds/s at 1.2 GHz), about 65K on an A55 at 1.8 GHz (~27K) and about 40K on an
+     * out-of-order A73 at 2 GHz (~50K). Recalibrate them from the benchmarkScore that getDeviceProfile() reports.
+     */
+    private static final int MEDIUM_SCORE = 20000;
+    private static final int HIGH_SCORE = 40000;
+
+    private static volatile int sink;
+
+    private PerformanceTier() {}
+
+    public static String classify(int cores, int maxFrequency, long totalMemory, boolean lowRamDevice, int benchmarkScore) {
+        if (lowRamDevice || (totalMemory > 0 && totalMemory < LOW_MEMORY)) {
+            return LOW;
+        }
+
+        int points = 0;
+
+        points += cores >= 4 ? 1 : 0;
+        points += cores >= 8 ? 1 : 0;
+        points += maxFrequency >= MEDIUM_FREQUENCY ? 1 : 0;
+        points += maxFrequency >= HIGH_FREQUENCY ? 1 : 0;
+        points += totalMemory >= MEDIUM_MEMORY ? 1 : 0;
+        points += totalMemory >= HIGH_MEMORY ? 1 : 0;
+        int criteria = CRITERIA;
+
+        if (benchmarkScore > 0) {
+            criteria += BENCHMARK_CRITERIA;
+            points += benchmarkScore >= MEDIUM_SCORE ? 1 : 0;
+            points += benchmarkScore >= HIGH_SCORE ? 1 : 0;
+        }
+
+        if (points * 4 >= criteria * 3) {
+            return HIGH;
+        }
+
+        return points * 8 >= criteria * 3 ? MEDIUM : LOW;
+    }
+
+    public static int readMaxFrequency(int cores) {
+        int maxFrequency = 0;
+
+        for (int i = 0; i < cores; i++) {
+            try (BufferedReader reader = new BufferedReader(new FileReader("/sys/devices/system/cpu/cpu" + i + "/cpufreq/cpuinfo_max_freq"))) {
+                String line = reader.readLine();
+
+                if (null != line) {
+                    maxFrequency = Math.max(maxFrequency, Integer.parseInt(line.trim()) / 1000);
+                }
+            } catch (IOException | NumberFormatException ignore) {
+            }
+        }
+
+        return maxFrequency;
+    }
+
+    public static int measure() {
+        benchmark();
+
+        return Math.max(benchmark(), benchmark());
+    }
+
+    private static int benchmark() {
+        final int[] buffer = new int[BENCHMARK_BUFFER_SIZE];
+        final long end = SystemClock.elapsedRealtime() + BENCHMARK_DURATION;
+        int rounds = 0;
+        int hash = 0;
+
+        while (SystemClock.elapsedRealtime() < end) {
+            for (int i = 0; i < BENCHMARK_BUFFER_SIZE; i++) {
+                hash = 31 * hash + (buffer[(i * 7) & (BENCHMARK_BUFFER_SIZE - 1)] ^ i);
+                buffer[i] = hash;
+            }
+
+            rounds++;
+        }
+
+        sink = hash;
+
+        return (int) (rounds * 1000 / BENCHMARK_DURATION);
+    }
+}
@@ -5,76 +5,101 @@ import android.os.SystemClock;
 import android.view.InputDevice;
 import android.view.KeyEvent;
 
-public class RemoteKeyEvent extends KeyEvent {
+public class RemoteKeyEvent {
+    public static final int TYPE_OTHER = 0;
+    public static final int TYPE_MEDIA = 1;
+    public static final int TYPE_VOLUME = 2;
+
+    private static final int[] MEDIA_KEYS = {
+        KeyEvent.KEYCODE_MEDIA_PLAY,
+        KeyEvent.KEYCODE_MEDIA_PAUSE,
+        KeyEvent.KEYCODE_MEDIA_PLAY_PAUSE,
+        KeyEvent.KEYCODE_MEDIA_STOP,
+        KeyEvent.KEYCODE_MEDIA_PREVIOUS,
+        KeyEvent.KEYCODE_MEDIA_NEXT,
+        KeyEvent.KEYCODE_MEDIA_REWIND,
+        KeyEvent.KEYCODE_MEDIA_FAST_FORWARD,
+        KeyEvent.KEYCODE_MEDIA_AUDIO_TRACK,
+        KeyEvent.KEYCODE_MEDIA_CLOSE,
+        KeyEvent.KEYCODE_MEDIA_EJECT,
+        KeyEvent.KEYCODE_MEDIA_RECORD,
+        KeyEvent.KEYCODE_MEDIA_SKIP_BACKWARD,
+        KeyEvent.KEYCODE_MEDIA_SKIP_FORWARD,
+        KeyEvent.KEYCODE_MEDIA_STEP_BACKWARD,
+        KeyEvent.KEYCODE_MEDIA_STEP_FORWARD,
+    };
+
+    private static final int[] VOLUME_KEYS = {
+        KeyEvent.KEYCODE_VOLUME_DOWN,
+        KeyEvent.KEYCODE_VOLUME_UP,
+        KeyEvent.KEYCODE_VOLUME_MUTE,
+    };
+
+    private static final byte[] TYPES = createTypes();
+
     public int action;
     public int code;
     public int scanCode;
+    public int repeatCount;
 
-    public RemoteKeyEvent(KeyEvent event) {
-        super(createEvent(event));
+    public RemoteKeyEvent set(KeyEvent event) {
+        action = event.getAction();
+        code = KeyEvent.KEYCODE_DPAD_CENTER == event.getKeyCode() ? KeyEvent.KEYCODE_ENTER : event.getKeyCode();
+        scanCode = event.getScanCode();
+        repeatCount = event.getRepeatCount();
 
-        action = getAction();
-        code = getKeyCode();
-        scanCode = getScanCode();
+        return this;
     }
 
-    private static KeyEvent createEvent(KeyEvent event) {
-        int code = event.getKeyCode();
+    public RemoteKeyEvent set(RemoteKeyEvent event) {
+        action = event.action;
+        code = event.code;
+        scanCode = event.scanCode;
+        repeatCount = event.repeatCount;
 
-        if (code == KeyEvent.KEYCODE_DPAD_CENTER) {
-            code = KeyEvent.KEYCODE_ENTER;
-        }
+        return this;
+    }
 
-        return new KeyEvent(
-            event.getDownTime(),
-            event.getEventTime(),
-            event.getAction(),
-            code,
-            event.getRepeatCount(),
-            event.getMetaState(),
-            event.getDeviceId(),
-            event.getScanCode(),
-            event.getFlags(),
-            event.getSource()
-        );
+    public boolean isRepeat() {
+        return KeyEvent.ACTION_DOWN == action && repeatCount > 0;
+    }
+
+    public static int getType(int keyCode) {
+        return keyCode >= 0 && keyCode < TYPES.length ? TYPES[keyCode] : TYPE_OTHER;
+    }
+
+    public static boolean isMediaKey(int keyCode) {
+        return TYPE_MEDIA == getType(keyCode);
+    }
+
+    public static boolean isVolumeKey(int keyCode) {
+        return TYPE_VOLUME == getType(keyCode);
     }
 
-    public boolean isMediaKey() {
+    @SuppressWarnings("deprecation")
+    private static byte[] createTypes() {
+        final byte[] types = new byte[KeyEvent.getMaxKeyCode() + 1];
+
         if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.S) {
-            return KeyEvent.isMediaSessionKey(getKeyCode());
+            for (int code = 0; code < types.length; code++) {
+                if (KeyEvent.isMediaSessionKey(code)) {
+                    types[code] = TYPE_MEDIA;
+                }
+            }
+        } else {
+            fill(types, MEDIA_KEYS, TYPE_MEDIA);
         }
 
-        switch (getKeyCode()) {
-            case KeyEvent.KEYCODE_MEDIA_PLAY:
-            case KeyEvent.KEYCODE_MEDIA_PAUSE:
-            case KeyEvent.KEYCODE_MEDIA_PLAY_PAUSE:
-            case KeyEvent.KEYCODE_MEDIA_STOP:
-            case KeyEvent.KEYCODE_MEDIA_PREVIOUS:
-            case KeyEvent.KEYCODE_MEDIA_NEXT:
-            case KeyEvent.KEYCODE_MEDIA_REWIND:
-            case KeyEvent.KEYCODE_MEDIA_FAST_FORWARD:
-            case KeyEvent.KEYCODE_MEDIA_AUDIO_TRACK:
-            case KeyEvent.KEYCODE_MEDIA_CLOSE:
-            case KeyEvent.KEYCODE_MEDIA_EJECT:
-            case KeyEvent.KEYCODE_MEDIA_RECORD:
-            case KeyEvent.KEYCODE_MEDIA_SKIP_BACKWARD:
-            case KeyEvent.KEYCODE_MEDIA_SKIP_FORWARD:
-            case KeyEvent.KEYCODE_MEDIA_STEP_BACKWARD:
-            case KeyEvent.KEYCODE_MEDIA_STEP_FORWARD:
-                return true;
-            default:
-                return false;
-        }
+        fill(types, VOLUME_KEYS, TYPE_VOLUME);
+
+        return types;
     }
 
-    public boolean isVolumeKey() {
-        switch (getKeyCode()) {
-            case KeyEvent.KEYCODE_VOLUME_DOWN:
-            case KeyEvent.KEYCODE_VOLUME_UP:
-            case KeyEvent.KEYCODE_VOLUME_MUTE:
-                return true;
-            default:
-                return false;
+    private static void fill(byte[] types, int[] codes, int type) {
+        for (int code : codes) {
+            if (code < types.length) {
+                types[code] = (byte) type;
+            }
         }
     }
 
@@ -83,12 +108,27 @@ public class RemoteKeyEvent extends KeyEvent {
             SystemClock.uptimeMillis(),
             SystemClock.uptimeMillis(),
             KeyEvent.ACTION_DOWN,
-            KEYCODE_ESCAPE,
+            KeyEvent.KEYCODE_ESCAPE,
+            0,
+            0,
+            -1,
+            KeyEvent.KEYCODE_ESCAPE,
+            KeyEvent.FLAG_FROM_SYSTEM,
+            InputDevice.SOURCE_KEYBOARD
+        );
+    }
+
+    public static KeyEvent createFakeMediaEvent(int action, int keyCode) {
+        return new KeyEvent(
+            SystemClock.uptimeMillis(),
+            SystemClock.uptimeMillis(),
+            action,
+            keyCode,
             0,
             0,
             -1,
-            KEYCODE_ESCAPE,
-            FLAG_FROM_SYSTEM,
+            0,
+            KeyEvent.FLAG_FROM_SYSTEM,
             InputDevice.SOURCE_KEYBOARD
         );
     }
@@ -98,12 +138,12 @@ public class RemoteKeyEvent extends KeyEvent {
             SystemClock.uptimeMillis(),
             SystemClock.uptimeMillis(),
             KeyEvent.ACTION_DOWN,
-            KEYCODE_MOVE_HOME,
+            KeyEvent.KEYCODE_MOVE_HOME,
             0,
             0,
             -1,
-            KEYCODE_HOME,
-            FLAG_FROM_SYSTEM,
+            KeyEvent.KEYCODE_HOME,
+            KeyEvent.FLAG_FROM_SYSTEM,
             InputDevice.SOURCE_KEYBOARD
         );
     }
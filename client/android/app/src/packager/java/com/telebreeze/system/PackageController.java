@@ -1,15 +1,12 @@
 package com.sample.system;
 
 import android.app.Activity;
-import android.content.pm.PackageInfo;
-import android.content.res.Resources;
-
-import com.sample.R;
 
 import de.andycandy.android.bridge.CallType;
 import de.andycandy.android.bridge.DefaultJSInterface;
 import de.andycandy.android.bridge.JSFunctionWithArg;
 import de.andycandy.android.bridge.NativeCall;
+import de.andycandy.android.bridge.Promise;
 
 public class PackageController extends DefaultJSInterface {
     private final Activity activity;
@@ -24,14 +21,19 @@ public class PackageController extends DefaultJSInterface {
 
     @NativeCall(CallType.FULL_SYNC)
     public ApplicationInfo getInfo() {
-        try {
-            final Resources res = activity.getResources();
-            final android.content.pm.PackageManager pm = activity.getPackageManager();
-            final PackageInfo packageInfo = pm.getPackageInfo(activity.getPackageName(), 0);
+        return ApplicationInfo.getSelf(activity);
+    }
+
+    @NativeCall(CallType.FULL_PROMISE)
+    public Promise<String> getIcon() {
+        return doInBackground((promise) -> {
+            try {
+                promise.resolve(ApplicationInfo.getSelfIcon(activity));
+            } catch (Exception e) {
+                promise.reject(e);
+            }
 
-            return new ApplicationInfo(packageInfo, res.getString(R.string.flavor), res.getString(R.string.branch), res.getString(R.string.commit), pm);
-        } catch (Exception ignore) {
             return null;
-        }
+        });
     }
 }
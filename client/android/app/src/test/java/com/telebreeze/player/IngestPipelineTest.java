@@ -0,0 +1,113 @@
+package com.sample.player;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Sends RTP over unicast loopback rather than a multicast group, since most CI hosts do not
+ * route multicast on lo. Everything after the socket is the same path MulticastIngest runs.
+ */
+public class IngestPipelineTest {
+    private static final int PAYLOAD_SIZE = 188;
+    private static final long LATENCY = 60_000_000_000L;
+
+    private final IngestStats stats = new IngestStats();
+    private final IngestPipeline pipeline = new IngestPipeline(64, 2048, 256, LATENCY, 64 * 1024, stats);
+    private DatagramChannel sender;
+    private DatagramChannel receiver;
+
+    @Before
+    public void setUp() throws IOException {
+        receiver = DatagramChannel.open().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        sender = DatagramChannel.open().connect(receiver.getLocalAddress());
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        sender.close();
+        receiver.close();
+    }
+
+    @Test
+    public void reordersPacketsBySequence() throws IOException {
+        send(1, 1);
+        send(3, 3);
+        send(2, 2);
+        send(4, 4);
+        receive(4);
+        pipeline.drain(true);
+
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, read());
+        assertEquals(1, stats.getReordered());
+        assertEquals(0, stats.getLost());
+    }
+
+    @Test
+    public void flushesBufferedPacketsBeforeResync() throws IOException {
+        send(10, 1);
+        send(12, 2);
+        send(1010, 3);
+        send(1011, 4);
+        receive(4);
+        pipeline.drain(true);
+
+        assertArrayEquals(new byte[] {1, 2, 3, 4}, read());
+        assertEquals(1 + 997, stats.getLost());
+    }
+
+    @Test
+    public void passesRawTransportStreamThrough() throws IOException {
+        final ByteBuffer datagram = ByteBuffer.allocate(PAYLOAD_SIZE);
+
+        datagram.put(0, (byte) 0x47).put(1, (byte) 9);
+        sender.write(datagram);
+        receive(1);
+
+        assertArrayEquals(new byte[] {9}, read());
+    }
+
+    private void send(int sequence, int marker) throws IOException {
+        final ByteBuffer datagram = ByteBuffer.allocate(12 + PAYLOAD_SIZE);
+
+        datagram.put((byte) 0x80).put((byte) 33).putShort((short) sequence).putInt(sequence * 3600).putInt(0x5EED);
+        datagram.put((byte) 0x47).put((byte) marker);
+        datagram.clear();
+        sender.write(datagram);
+    }
+
+    private void receive(int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            final Packet packet = pipeline.acquire();
+
+            assertNotNull(packet);
+            receiver.receive(packet.buffer);
+            pipeline.process(packet);
+        }
+    }
+
+    private byte[] read() throws IOException {
+        final TsInputStream inputStream = pipeline.getInputStream();
+        final byte[] stream = new byte[inputStream.available()];
+        final byte[] markers = new byte[stream.length / PAYLOAD_SIZE];
+
+        assertEquals(stream.length, inputStream.read(stream, 0, stream.length));
+
+        for (int i = 0; i < markers.length; i++) {
+            assertEquals(0x47, stream[i * PAYLOAD_SIZE]);
+            markers[i] = stream[i * PAYLOAD_SIZE + 1];
+        }
+
+        return markers;
+    }
+}
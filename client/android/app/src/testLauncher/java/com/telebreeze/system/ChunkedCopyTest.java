@@ -0,0 +1,95 @@
+package com.sample.system;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import androidx.annotation.NonNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.Response;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okio.Buffer;
+import okio.BufferedSink;
+import okio.BufferedSource;
+import okio.ForwardingSource;
+import okio.HashingSource;
+import okio.Okio;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ChunkedCopyTest {
+    private static final int PAYLOAD_SIZE = 200 * 1024 * 1024;
+    private static final int BLOCK_SIZE = 64 * 1024;
+    private static final long CHUNK_SIZE = 64 * 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private MockWebServer server;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new MockWebServer();
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        server.shutdown();
+    }
+
+    @Test
+    public void streamsLargeBodyToDisk() throws IOException, NoSuchAlgorithmException {
+        final MessageDigest expected = MessageDigest.getInstance("SHA-256");
+        final Buffer payload = new Buffer();
+        final byte[] block = new byte[BLOCK_SIZE];
+
+        for (int i = 0; i < PAYLOAD_SIZE / BLOCK_SIZE; i++) {
+            for (int j = 0; j < BLOCK_SIZE; j += 4096) {
+                block[j] = (byte) i;
+            }
+
+            expected.update(block);
+            payload.write(block);
+        }
+
+        server.enqueue(new MockResponse().setBody(payload));
+
+        final File file = folder.newFile("package.apk.part");
+        final OkHttpClient client = new OkHttpClient();
+        final long[] maxPending = {0};
+        final long written;
+
+        try (Response response = client.newCall(new Request.Builder().url(server.url("/package.apk")).build()).execute();
+             BufferedSink sink = Okio.buffer(Okio.sink(file));
+             BufferedSource source = Okio.buffer(new ForwardingSource(response.body().source()) {
+                 @Override
+                 public long read(@NonNull Buffer buffer, long byteCount) throws IOException {
+                     maxPending[0] = Math.max(maxPending[0], sink.getBuffer().size());
+                     return super.read(buffer, byteCount);
+                 }
+             })) {
+            written = ChunkedCopy.copy(source, sink, CHUNK_SIZE);
+        }
+
+        assertTrue("Sink held " + maxPending[0] + " unwritten bytes", maxPending[0] <= CHUNK_SIZE);
+        assertEquals(PAYLOAD_SIZE, written);
+        assertEquals(PAYLOAD_SIZE, file.length());
+
+        try (HashingSource hashingSource = HashingSource.sha256(Okio.source(file)); BufferedSource source = Okio.buffer(hashingSource)) {
+            source.readAll(Okio.blackhole());
+            assertArrayEquals(expected.digest(), hashingSource.hash().toByteArray());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+plugins {
+    alias(libs.plugins.android.test)
+    alias(libs.plugins.androidx.baselineprofile)
+}
+
+fun getEnvOrDefault(key: String, default: String): String {
+    val value = System.getenv(key)
+    return if (value == null || value.isEmpty()) default else value
+}
+
+val envPackageName: String
+    get() = getEnvOrDefault("TB_ANDROID_PACKAGE", "com.sample")
+
+android {
+    namespace = "com.sample.benchmark"
+    compileSdk = 35
+
+    defaultConfig {
+        minSdk = 23
+        targetSdk = 34
+        testInstrumentationRunner = "androidx.test.runner.AndroidJUnitRunner"
+        testInstrumentationRunnerArguments["targetPackage"] = envPackageName
+    }
+
+    compileOptions {
+        sourceCompatibility = JavaVersion.VERSION_1_8
+        targetCompatibility = JavaVersion.VERSION_1_8
+    }
+
+    flavorDimensions += "version"
+
+    productFlavors {
+        create("launcher") {
+            dimension = "version"
+        }
+        create("standalone") {
+            dimension = "version"
+        }
+        create("market") {
+            dimension = "version"
+        }
+    }
+
+    targetProjectPath = ":app"
+    experimentalProperties["android.experimental.self-instrumenting"] = true
+}
+
+dependencies {
+    implementation(libs.androidx.benchmark.macro.junit4)
+    implementation(libs.androidx.test.ext.junit)
+    implementation(libs.androidx.test.uiautomator)
+    implementation(libs.mockwebserver)
+}
+
+baselineProfile {
+    useConnectedDevices = true
+}
@@ -0,0 +1,86 @@
+package com.sample.benchmark;
+
+import androidx.benchmark.macro.MacrobenchmarkScope;
+import androidx.benchmark.macro.junit4.BaselineProfileRule;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.UiDevice;
+import androidx.test.uiautomator.Until;
+
+import kotlin.Unit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+public class BaselineProfileGenerator {
+    private static final int MAX_ITERATIONS = 15;
+    private static final int STABLE_ITERATIONS = 3;
+    private static final int NAVIGATION_ROUNDS = 10;
+    private static final long LOAD_TIMEOUT = 30000;
+
+    @Rule
+    public BaselineProfileRule baselineProfileRule = new BaselineProfileRule();
+
+    private final PortalServer server = new PortalServer();
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void startup() {
+        collect("startup", true, this::launch);
+    }
+
+    @Test
+    public void remoteNavigation() {
+        collect("remoteNavigation", false, scope -> {
+            launch(scope);
+
+            UiDevice device = scope.getDevice();
+
+            for (int i = 0; i < NAVIGATION_ROUNDS; i++) {
+                device.pressDPadDown();
+                device.pressDPadRight();
+                device.pressDPadUp();
+                device.pressDPadLeft();
+                device.pressDPadCenter();
+                device.waitForIdle();
+            }
+
+            device.pressBack();
+        });
+    }
+
+    private interface Journey {
+        void run(MacrobenchmarkScope scope);
+    }
+
+    private void collect(String prefix, boolean includeInStartupProfile, Journey journey) {
+        baselineProfileRule.collect(
+            StartupBenchmark.getTargetPackage(),
+            MAX_ITERATIONS,
+            STABLE_ITERATIONS,
+            prefix,
+            includeInStartupProfile,
+            false,
+            rule -> true,
+            scope -> {
+                journey.run(scope);
+                return Unit.INSTANCE;
+            }
+        );
+    }
+
+    private void launch(MacrobenchmarkScope scope) {
+        scope.pressHome();
+        scope.startActivityAndWait(StartupBenchmark.createPortalIntent(server.getUrl()));
+        scope.getDevice().wait(Until.hasObject(By.textStartsWith(PortalServer.LOADED_MARKER)), LOAD_TIMEOUT);
+    }
+}
@@ -0,0 +1,56 @@
+package com.sample.benchmark;
+
+import androidx.annotation.NonNull;
+
+import java.io.IOException;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+public class PortalServer {
+    public static final String LOADED_MARKER = "Portal loaded";
+
+    private static final String INDEX_HTML = "<!DOCTYPE html>"
+        + "<html><head><meta charset=\"utf-8\"><script src=\"assets/tv.js\"></script></head>"
+        + "<body style=\"background:#000;color:#fff\"><h1 id=\"marker\">" + LOADED_MARKER + "</h1></body></html>";
+
+    private static final String SCRIPT = "if (window.android) {"
+        + "var device = window.android.interfaces.device;"
+        + "device.getInfo();"
+        + "window.android.interfaces.package.getInfo();"
+        + "device.onKeyEvent(function (event) { document.getElementById('marker').textContent = '" + LOADED_MARKER + " ' + event.scanCode; });"
+        + "}";
+
+    private final MockWebServer server = new MockWebServer();
+
+    public void start() throws IOException {
+        server.setDispatcher(new Dispatcher() {
+            @NonNull
+            @Override
+            public MockResponse dispatch(@NonNull RecordedRequest request) {
+                String path = null != request.getPath() ? request.getPath() : "/";
+
+                if ("/".equals(path) || "/index.html".equals(path)) {
+                    return new MockResponse().setHeader("Content-Type", "text/html; charset=utf-8").setBody(INDEX_HTML);
+                }
+
+                if ("/assets/tv.js".equals(path)) {
+                    return new MockResponse().setHeader("Content-Type", "application/javascript").setBody(SCRIPT);
+                }
+
+                return new MockResponse().setResponseCode(404);
+            }
+        });
+        server.start();
+    }
+
+    public String getUrl() {
+        return server.url("/").toString();
+    }
+
+    public void shutdown() throws IOException {
+        server.shutdown();
+    }
+}
@@ -0,0 +1,98 @@
+package com.sample.benchmark;
+
+import android.content.Context;
+import android.content.Intent;
+import android.net.Uri;
+
+import androidx.benchmark.macro.BaselineProfileMode;
+import androidx.benchmark.macro.CompilationMode;
+import androidx.benchmark.macro.StartupMode;
+import androidx.benchmark.macro.StartupTimingMetric;
+import androidx.benchmark.macro.junit4.MacrobenchmarkRule;
+import androidx.test.platform.app.InstrumentationRegistry;
+import androidx.test.uiautomator.By;
+import androidx.test.uiautomator.Until;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import kotlin.Unit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+@RunWith(Parameterized.class)
+public class StartupBenchmark {
+    private static final int ITERATIONS = 10;
+    private static final long LOAD_TIMEOUT = 30000;
+
+    @Rule
+    public MacrobenchmarkRule benchmarkRule = new MacrobenchmarkRule();
+
+    private final StartupMode startupMode;
+    private final PortalServer server = new PortalServer();
+
+    public StartupBenchmark(StartupMode startupMode) {
+        this.startupMode = startupMode;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> parameters() {
+        return Arrays.asList(
+            new Object[]{StartupMode.COLD},
+            new Object[]{StartupMode.WARM},
+            new Object[]{StartupMode.HOT}
+        );
+    }
+
+    public static String getTargetPackage() {
+        return InstrumentationRegistry.getArguments().getString("targetPackage", "com.sample");
+    }
+
+    public static Intent createPortalIntent(String url) {
+        Context context = InstrumentationRegistry.getInstrumentation().getContext();
+        Intent intent = context.getPackageManager().getLaunchIntentForPackage(getTargetPackage());
+
+        if (null == intent) {
+            throw new IllegalStateException("Cannot find launch activity of " + getTargetPackage());
+        }
+
+        return intent.setAction(Intent.ACTION_VIEW).setData(Uri.parse(url));
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        server.start();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        server.shutdown();
+    }
+
+    @Test
+    public void startup() {
+        final Intent intent = createPortalIntent(server.getUrl());
+
+        benchmarkRule.measureRepeated(
+            getTargetPackage(),
+            Collections.singletonList(new StartupTimingMetric()),
+            new CompilationMode.Partial(BaselineProfileMode.UseIfAvailable, 0),
+            startupMode,
+            ITERATIONS,
+            scope -> {
+                scope.pressHome();
+                return Unit.INSTANCE;
+            },
+            scope -> {
+                scope.startActivityAndWait(intent);
+                scope.getDevice().wait(Until.hasObject(By.textStartsWith(PortalServer.LOADED_MARKER)), LOAD_TIMEOUT);
+                return Unit.INSTANCE;
+            }
+        );
+    }
+}
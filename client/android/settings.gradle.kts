@@ -21,3 +21,4 @@ dependencyResolutionManagement {
 
 rootProject.name = "sample"
 include(":app")
+include(":benchmark")
@@ -8,6 +8,7 @@ export type RemoteKeyEvent = {
   action: RemoteKeyAction;
   code: number;
   scanCode: number;
+  repeatCount: number;
 };
 
 export type DeviceInfo = {
@@ -20,6 +21,25 @@ export type DeviceInfo = {
   sdkVersion: number;
 };
 
+export type PerformanceTier = 'low' | 'medium' | 'high';
+
+export type DeviceProfile = {
+  tv: boolean;
+  hardware: string;
+  cpuName?: string;
+  features: string[];
+  codecs: string[];
+  totalMemory: number;
+  lowRamDevice: boolean;
+  screenWidth: number;
+  screenHeight: number;
+  screenDensity: number;
+  cores: number;
+  maxFrequency: number;
+  benchmarkScore: number;
+  performanceTier: PerformanceTier;
+};
+
 export type ApplicationInfo = {
   firstActivityName: string;
   packageName: string;
@@ -28,7 +48,7 @@ export type ApplicationInfo = {
   firstInstallTime: number;
   lastUpdateTime: number;
   appName: string;
-  icon: string;
+  icon?: string;
   apkDir: string;
   size: number;
   flavor?: 'launcher' | 'market' | 'standalone';
@@ -41,18 +61,39 @@ export interface Android {
   initialized: boolean;
   afterInitialize: () => void;
   interfaces: {
+    batch?: Batch;
     device: Device;
     package: Package;
+    portal: Portal;
   };
 }
 
 type EventCallback<C> = (callback: C) => void;
 
+export type BatchCall = {
+  interface: 'device' | 'package' | 'portal';
+  method: string;
+  args?: Array<string | number | boolean | null>;
+};
+
+export type BatchResult = {
+  value?: unknown;
+  error?: string;
+};
+
+export interface Batch {
+  call: (calls: string, parallel?: boolean) => BatchResult[];
+}
+
 export interface Device {
+  getAppIcon: (packageName: string, size?: number) => Promise<string>;
   getApps: () => Promise<ApplicationInfo[]>;
+  getDeviceProfile?: () => DeviceProfile;
   getId: () => string;
   getInfo: () => DeviceInfo;
   getOSVersion: () => string;
+  getPerformanceTier?: () => PerformanceTier;
+  getResourcesUrl: () => string;
   isTv: () => boolean;
   nativeBack: () => void;
   nativeLog: (message: string) => void;
@@ -66,8 +107,19 @@ export interface Device {
 
 export interface Package {
   getInfo: () => ApplicationInfo;
+  getIcon?: () => Promise<string>;
   updatePackage?: (uri: string, fileName?: string) => void;
+  updatePackageDelta?: (patchUrl: string, sha256: string, packageUrl: string, version: string) => void;
   cancelUpdate?: () => void;
+  setDownloadSegments?: (segments: number) => void;
   onDownloadProgress?: EventCallback<(progress: number) => void>;
+  onDownloadBytesProgress?: EventCallback<(bytes: number) => void>;
+  setProgressInterval?: (milliseconds: number) => void;
   onInstallProgress?: EventCallback<(progress: number) => void>;
 }
+
+export interface Portal {
+  clearCache: () => void;
+  getBundleVersion?: () => string;
+  isBundled?: () => boolean;
+}
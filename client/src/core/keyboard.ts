@@ -10,6 +10,15 @@ export enum KeyEvent {
   ON_DOWN = 'on-down',
 }
 
+export class RemoteKeyboardEvent extends KeyboardEvent {
+  public readonly repeatCount: number;
+
+  public constructor(type: string, init: KeyboardEventInit, repeatCount: number) {
+    super(type, init);
+    this.repeatCount = repeatCount;
+  }
+}
+
 export enum KeyboardKey {
   UP = 'ArrowUp',
   DOWN = 'ArrowDown',
@@ -249,11 +258,16 @@ class Keyboard extends EventListener {
       }
 
       if (key) {
-        const keyboardEvent: KeyboardEvent = new KeyboardEvent('keydown', {
-          key,
-          code: key,
-          keyCode: event.scanCode,
-        });
+        const keyboardEvent: RemoteKeyboardEvent = new RemoteKeyboardEvent(
+          'keydown',
+          {
+            key,
+            code: key,
+            keyCode: event.scanCode,
+            repeat: event.repeatCount > 0,
+          },
+          event.repeatCount,
+        );
 
         this.fireEvent(KeyEvent.ON_DOWN, keyboardEvent);
       }
@@ -1,5 +1,12 @@
 import Bowser, {type Parser} from 'bowser';
-import type {ApplicationInfo as AndroidAppInfo, DeviceInfo as AndroidDeviceInfo} from '../@types/android';
+import type {
+  Android,
+  ApplicationInfo as AndroidAppInfo,
+  BatchCall,
+  BatchResult,
+  DeviceInfo as AndroidDeviceInfo,
+  PerformanceTier,
+} from '../@types/android';
 import type {ApplicationInfo as IosAppInfo} from '../@types/ios';
 import _ from 'lodash';
 import type {DeviceInfo} from 'webostvjs';
@@ -67,13 +74,7 @@ class Platform {
     }
 
     if (this.isAndroid()) {
-      if (window.android.interfaces.device.nativeLog && window.portalVersion) {
-        window.android.interfaces.device.nativeLog(`portal-${window.portalVersion}`);
-      }
-
-      this.androidApp = window.android.interfaces.package.getInfo();
-
-      const {manufacturer, model, systemVersion}: AndroidDeviceInfo = window.android.interfaces.device.getInfo();
+      const {manufacturer, model, systemVersion}: AndroidDeviceInfo = this.initAndroidInfo();
       const device: string = model.startsWith(manufacturer) ? model : `${manufacturer} ${model}`;
 
       window.deviceName = device.charAt(0).toUpperCase() + device.slice(1);
@@ -94,6 +95,32 @@ class Platform {
     }
   }
 
+  private initAndroidInfo(): AndroidDeviceInfo {
+    const {batch, device, package: androidPackage}: Android['interfaces'] = window.android.interfaces;
+    const shouldLog: boolean = Boolean(device.nativeLog && window.portalVersion);
+    let results: BatchResult[] = [];
+
+    if (batch) {
+      const calls: BatchCall[] = [{interface: 'package', method: 'getInfo'}, {interface: 'device', method: 'getInfo'}];
+
+      if (shouldLog) {
+        calls.push({interface: 'device', method: 'nativeLog', args: [`portal-${window.portalVersion}`]});
+      }
+
+      results = batch.call(JSON.stringify(calls), true);
+    }
+
+    const [app, info, log]: Array<BatchResult | undefined> = results;
+
+    if (shouldLog && (!log || log.error)) {
+      device.nativeLog(`portal-${window.portalVersion}`);
+    }
+
+    this.androidApp = app && !app.error ? (app.value as AndroidAppInfo) : androidPackage.getInfo();
+
+    return info && !info.error ? (info.value as AndroidDeviceInfo) : device.getInfo();
+  }
+
   public isAndroid(): boolean {
     return Boolean(window.android);
   }
@@ -254,6 +281,14 @@ class Platform {
     return `${versionName}.${versionCode}-${commit}-${branch}`;
   }
 
+  public getPerformanceTier(): PerformanceTier {
+    if (this.isAndroid() && window.android.interfaces.device.getPerformanceTier) {
+      return window.android.interfaces.device.getPerformanceTier();
+    }
+
+    return 'high';
+  }
+
   public getIosPackageVersion(): string {
     const {versionName, versionCode, commit, branch}: IosAppInfo = this.iosApp;
     return `${versionName}.${versionCode}-${commit}-${branch}`;